@@ -21,12 +21,19 @@ import java.util.regex.Pattern;
 /**
  * Indicates an error from user input, such as an unknown option or an unexpected option-argument.
  * 
+ * <p>
+ * As user errors are normal results of parsing rather than failures of the program, no stack trace is captured for them, unless the
+ * system property <code>org.musiel.args.stackTrace</code> is set to <code>true</code>.
+ * </p>
+ * 
  * @author Bagana
  */
 public abstract class ArgumentException extends Exception {
 
 	private static final long serialVersionUID = -1088285368268583084L;
 
+	private static final boolean STACK_TRACE_WRITABLE = Boolean.getBoolean( "org.musiel.args.stackTrace");
+
 	private final boolean useResourceBundle;
 	// this field is never used if useResourceBundle is true
 	private final String message;
@@ -43,7 +50,7 @@ public abstract class ArgumentException extends Exception {
 	 * @param message
 	 */
 	public ArgumentException( final Throwable cause, final String message) {
-		super( cause);
+		super( null, cause, true, ArgumentException.STACK_TRACE_WRITABLE);
 		this.useResourceBundle = false;
 		this.message = message;
 		this.messageBundleBase = null;
@@ -82,7 +89,7 @@ public abstract class ArgumentException extends Exception {
 	 */
 	public ArgumentException( final Throwable cause, final String messageBundleBase, final String messageKey,
 			final Object... messageParameters) {
-		super( cause);
+		super( null, cause, true, ArgumentException.STACK_TRACE_WRITABLE);
 		this.useResourceBundle = true;
 		this.message = null;
 		this.messageBundleBase = messageBundleBase;
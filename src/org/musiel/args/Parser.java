@@ -36,4 +36,12 @@ public interface Parser< RESULT extends Result< ?>> {
 	public RESULT parse( final String[] args, final int offset);
 
 	public RESULT parse( final String[] args, final int offset, final int length);
+
+	/**
+	 * Parses many argument arrays independently of each other, possibly in parallel, and returns the results in the same order.
+	 * 
+	 * @param argsList
+	 * @return
+	 */
+	public List< RESULT> parseAll( final List< String[]> argsList);
 }
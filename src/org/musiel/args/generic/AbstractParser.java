@@ -21,6 +21,9 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.TreeMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
 
 import org.musiel.args.ArgumentException;
 import org.musiel.args.ArgumentPolicy;
@@ -29,6 +32,9 @@ import org.musiel.args.Parser;
 import org.musiel.args.Result;
 import org.musiel.args.operand.OperandException;
 import org.musiel.args.operand.OperandPattern;
+import org.musiel.args.syntax.CompilableSyntax;
+import org.musiel.args.syntax.CompiledSyntax;
+import org.musiel.args.syntax.IncrementalCompiledSyntax;
 import org.musiel.args.syntax.Syntax;
 import org.musiel.args.syntax.Syntax.SyntaxResult;
 
@@ -49,6 +55,34 @@ public abstract class AbstractParser< RESULT extends Result< ?>> implements Pars
 			throw new NullPointerException();
 	}
 
+	private boolean frozen = false;
+
+	public boolean isFrozen() {
+		return this.frozen;
+	}
+
+	/**
+	 * Makes this parser unmodifiable, and returns a view of it that may be shared among threads without synchronization, however it is
+	 * published. Any attempt to modify a frozen parser causes an {@link IllegalStateException}, changing its {@link Syntax} has no effect.
+	 * 
+	 * <p>
+	 * The view parses concurrently, as no state is shared among parsing processes but read-only one. The results are read-only too, and
+	 * may be published to other threads in the same way.
+	 * </p>
+	 * 
+	 * @return
+	 */
+	public Parser< RESULT> freeze() {
+		this.getCompiledSyntax();
+		this.frozen = true;
+		return new FrozenParser<>( this);
+	}
+
+	protected void checkNotFrozen() throws IllegalStateException {
+		if( this.frozen)
+			throw new IllegalStateException( "the parser is frozen");
+	}
+
 	private final Map< String, Option> optionDictionary = new TreeMap<>();
 	private final Set< Option> options = new LinkedHashSet<>();
 
@@ -68,6 +102,7 @@ public abstract class AbstractParser< RESULT extends Result< ?>> implements Pars
 
 	protected Option newOption( final boolean required, final boolean repeatable, final ArgumentPolicy argumentPolicy, final String name,
 			final String... aliases) {
+		this.checkNotFrozen();
 		final Option option = new GenericOption( required, repeatable, argumentPolicy, name, aliases);
 		this.syntax.validate( option);
 		for( final String optionName: option.getNames())
@@ -77,10 +112,55 @@ public abstract class AbstractParser< RESULT extends Result< ?>> implements Pars
 		this.options.add( option);
 		for( final String optionName: option.getNames())
 			this.optionDictionary.put( optionName, option);
+		this.compiledSyntax = null;
 
 		return option;
 	}
 
+	// compiled on demand, and dropped whenever the option set or, until frozen, the syntax configuration changes
+	private CompiledSyntax compiledSyntax = null;
+	private int compiledModificationCount = 0;
+
+	/**
+	 * Returns the syntax compiled for the options defined so far, and the current configuration of the {@link Syntax}. It is compiled
+	 * again when either of them changes, see {@link CompilableSyntax#getModificationCount()}, but not any more once the parser is frozen.
+	 * A {@link Syntax} that is not a {@link CompilableSyntax} is wrapped instead, and parses every argument array from scratch.
+	 * 
+	 * @return
+	 */
+	protected CompiledSyntax getCompiledSyntax() {
+		if( this.compiledSyntax != null && !this.frozen && this.syntax instanceof CompilableSyntax
+				&& ( ( CompilableSyntax) this.syntax).getModificationCount() != this.compiledModificationCount)
+			this.compiledSyntax = null;
+		if( this.compiledSyntax == null) {
+			final Set< Option> options = Collections.unmodifiableSet( this.options);
+			if( this.syntax instanceof CompilableSyntax) {
+				this.compiledModificationCount = ( ( CompilableSyntax) this.syntax).getModificationCount();
+				this.compiledSyntax = ( ( CompilableSyntax) this.syntax).compile( options);
+			} else
+				this.compiledSyntax = new UncompiledSyntax( this.syntax, options);
+		}
+		return this.compiledSyntax;
+	}
+
+	private boolean argumentFilesAllowed = false;
+
+	public boolean isArgumentFilesAllowed() {
+		return this.argumentFilesAllowed;
+	}
+
+	/**
+	 * Sets whether an argument like "@path" is replaced with the arguments in the named file (see {@link ArgumentFile} for its format).
+	 * Files are read lazily while parsing, and their arguments are fed to the syntax one by one, so a file can hold far more arguments than
+	 * a command line. To pass an argument starting with '@' literally, prepend another '@' to it. Disabled by default.
+	 * 
+	 * @param argumentFilesAllowed
+	 */
+	public void setArgumentFilesAllowed( final boolean argumentFilesAllowed) {
+		this.checkNotFrozen();
+		this.argumentFilesAllowed = argumentFilesAllowed;
+	}
+
 	private OperandPattern operandPattern = null;
 
 	protected OperandPattern getOperandPatternMatcher() {
@@ -98,6 +178,7 @@ public abstract class AbstractParser< RESULT extends Result< ?>> implements Pars
 	}
 
 	protected void setOperandPattern( final String operandPattern) {
+		this.checkNotFrozen();
 		this.operandPattern = operandPattern == null? null: this.compileAndTestPattern( operandPattern);
 	}
 
@@ -140,22 +221,161 @@ public abstract class AbstractParser< RESULT extends Result< ?>> implements Pars
 			throw new IllegalArgumentException( String.valueOf( length));
 		if( offset + length > args.length)
 			throw new ArrayIndexOutOfBoundsException( offset + length);
-		return this.parse( Arrays.copyOfRange( args, offset, offset + length));
+		return this.parseRange( args, offset, length);
 	}
 
 	@ Override
 	public RESULT parse( final String... args) {
-		final SyntaxResult syntaxResult = this.syntax.parse( Collections.unmodifiableSet( this.options), args);
-		final Collection< ArgumentException> exceptions = new LinkedList< ArgumentException>( syntaxResult.getErrors());
+		return this.parseRange( args, 0, args.length);
+	}
+
+	// the range is parsed in place, without copying the array
+	private RESULT parseRange( final String[] args, final int offset, final int length) {
+		final SyntaxResult syntaxResult;
+		// syntax errors are only created on request, so they are not copied
+		final ErrorCollection exceptions = new ErrorCollection();
+		// operands are matched as soon as the syntax finds them
+		final OperandPattern.Matcher matcher = this.operandPattern == null? null: this.operandPattern.newMatcher();
+		final IncrementalCompiledSyntax.OperandSink operandSink = matcher == null? null: new IncrementalCompiledSyntax.OperandSink() {
+
+			@ Override
+			public boolean offer( final String operand) {
+				return matcher.offer( operand);
+			}
+		};
+		final CompiledSyntax compiledSyntax = this.getCompiledSyntax();
+		final IncrementalCompiledSyntax incremental =
+				compiledSyntax instanceof IncrementalCompiledSyntax? ( IncrementalCompiledSyntax) compiledSyntax: null;
+		if( this.argumentFilesAllowed) {
+			final ArgumentFileExpander expander = new ArgumentFileExpander( args, offset, length, compiledSyntax.isFailFast());
+			try {
+				syntaxResult = incremental == null? compiledSyntax.parse( expander): incremental.parse( expander, operandSink);
+			} finally {
+				// a fail-fast syntax may stop in the middle of a file
+				expander.close();
+			}
+			exceptions.append( expander.getErrors());
+		} else if( incremental == null)
+			syntaxResult = compiledSyntax.parse( args, offset, length);
+		else
+			syntaxResult = incremental.parse( args, offset, length, operandSink);
+		// operands of a syntax that is not incremental are matched once it has finished
+		if( incremental == null && matcher != null)
+			for( final String operand: syntaxResult.getOperands())
+				if( !matcher.offer( operand))
+					break;
+		exceptions.append( syntaxResult.getErrors());
+		if( this.isFailFast() && !exceptions.isEmpty())
+			return this.adapt( syntaxResult, null, exceptions);
+
 		Map< String, List< String>> operandMap = null;
 		try {
-			operandMap = this.operandPattern == null? null: this.operandPattern.match( syntaxResult.getOperands());
+			operandMap = matcher == null? null: matcher.getResult();
 		} catch( final OperandException exception) {
-			exceptions.add( exception);
+			exceptions.append( Collections.singleton( exception));
 			operandMap = new TreeMap<>();
 		}
 
-		return this.adapt( syntaxResult, operandMap, Collections.unmodifiableCollection( exceptions));
+		return this.adapt( syntaxResult, operandMap, exceptions);
+	}
+
+	// argument arrays parsed by a single task, and the largest batch parsed without forking
+	private static final int BATCH_SIZE = 256;
+
+	private int parallelism = Runtime.getRuntime().availableProcessors();
+	// created on demand, and replaced whenever the parallelism changes
+	private ForkJoinPool pool = null;
+
+	public int getParallelism() {
+		return this.parallelism;
+	}
+
+	/**
+	 * Sets the number of threads {@link #parseAll(List)} may use, which defaults to the number of available processors. 1 disables
+	 * parallel parsing.
+	 * 
+	 * @param parallelism
+	 */
+	public synchronized void setParallelism( final int parallelism) {
+		this.checkNotFrozen();
+		if( parallelism < 1)
+			throw new IllegalArgumentException( String.valueOf( parallelism));
+		this.parallelism = parallelism;
+		if( this.pool != null)
+			this.pool.shutdown();
+		this.pool = null;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * 
+	 * <p>
+	 * Batches larger than a few hundred arrays are split among the threads of a fork-join pool, see {@link #setParallelism(int)}, smaller
+	 * ones are parsed in the calling thread. The parser MUST NOT be modified until this method returns.
+	 * </p>
+	 */
+	@ Override
+	public List< RESULT> parseAll( final List< String[]> argsList) {
+		final String[][] args = argsList.toArray( new String[ argsList.size()][]);
+		final Object[] results = new Object[ args.length];
+		if( this.parallelism == 1 || args.length <= AbstractParser.BATCH_SIZE)
+			for( int index = 0; index < args.length; ++index)
+				results[ index] = this.parse( args[ index]);
+		else {
+			this.getCompiledSyntax(); // compiled before forking, so that the workers only read it
+			this.getPool().invoke( new ParseTask( args, results, 0, args.length));
+		}
+
+		@ SuppressWarnings( "unchecked")
+		final List< RESULT> resultList = ( List< RESULT>) ( List< ?>) Arrays.asList( results);
+		return Collections.unmodifiableList( resultList);
+	}
+
+	// the only state created lazily by a frozen parser, thus synchronized
+	private synchronized ForkJoinPool getPool() {
+		if( this.pool == null)
+			this.pool = new ForkJoinPool( this.parallelism);
+		return this.pool;
+	}
+
+	private class ParseTask extends RecursiveAction {
+
+		private static final long serialVersionUID = 2811307364180421596L;
+
+		private final String[][] args;
+		private final Object[] results;
+		private final int from;
+		private final int to;
+
+		ParseTask( final String[][] args, final Object[] results, final int from, final int to) {
+			this.args = args;
+			this.results = results;
+			this.from = from;
+			this.to = to;
+		}
+
+		@ Override
+		protected void compute() {
+			if( this.to - this.from <= AbstractParser.BATCH_SIZE)
+				for( int index = this.from; index < this.to; ++index)
+					this.results[ index] = AbstractParser.this.parse( this.args[ index]);
+			else {
+				final int middle = this.from + this.to >>> 1;
+				ForkJoinTask.invokeAll( new ParseTask( this.args, this.results, this.from, middle), new ParseTask( this.args, this.results,
+						middle, this.to));
+			}
+		}
+	}
+
+	/**
+	 * Returns whether the syntax is configured to stop at the first error (see {@link CompiledSyntax#isFailFast()}). If so, operands are not
+	 * matched against the pattern once an error is found, and implementations of
+	 * {@link #adapt(SyntaxResult, Map, Collection)} should skip any further checking for a result with errors.
+	 * 
+	 * @return
+	 */
+	protected boolean isFailFast() {
+		return this.getCompiledSyntax().isFailFast();
 	}
 
 	protected abstract RESULT adapt( SyntaxResult syntaxResult, Map< String, List< String>> operands,
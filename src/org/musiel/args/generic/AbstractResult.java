@@ -40,7 +40,7 @@ public class AbstractResult< ACCESSOR> implements Result< ACCESSOR> {
 			throws ArgumentExceptions {
 		final LinkedList< ArgumentException> exceptions = new LinkedList<>();
 		for( final Class< ? extends ArgumentException> exceptionType: exceptionTypes)
-			for( final ArgumentException exception: this.exceptions)
+			for( final ArgumentException exception: this.getErrors())
 				if( exceptionType.isInstance( exception))
 					exceptions.add( exception);
 		if( !exceptions.isEmpty())
@@ -51,7 +51,7 @@ public class AbstractResult< ACCESSOR> implements Result< ACCESSOR> {
 	@ Override
 	public AbstractResult< ACCESSOR> check( final Class< ? extends ArgumentException> exceptionType) throws ArgumentExceptions {
 		final LinkedList< ArgumentException> exceptions = new LinkedList<>();
-		for( final ArgumentException exception: this.exceptions)
+		for( final ArgumentException exception: this.getErrors())
 			if( exceptionType.isInstance( exception))
 				exceptions.add( exception);
 		if( !exceptions.isEmpty())
@@ -61,8 +61,9 @@ public class AbstractResult< ACCESSOR> implements Result< ACCESSOR> {
 
 	@ Override
 	public ACCESSOR check() throws ArgumentExceptions {
-		if( !this.exceptions.isEmpty())
-			throw new ArgumentExceptions( this.exceptions);
+		final Collection< ? extends ArgumentException> exceptions = this.getErrors();
+		if( !exceptions.isEmpty())
+			throw new ArgumentExceptions( exceptions);
 		return this.accessor;
 	}
 
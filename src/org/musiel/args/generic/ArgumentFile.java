@@ -0,0 +1,153 @@
+/*
+ * Copyright 2014 Bagana <bagana@musiel.org>
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License. You 
+ * may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS, 
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing 
+ * permissions and limitations under the License.
+ */
+package org.musiel.args.generic;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.charset.Charset;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Tokenizes an argument file (also known as a response file) lazily, one argument at a time.
+ * 
+ * <p>
+ * Arguments are separated by line breaks or NUL characters, empty lines are skipped. An argument starting with a double or single quote
+ * extends to the matching quote, which may be followed by more characters up to the next separator. Within double quotes, a backslash
+ * makes the next character literal, within single quotes, every character is literal. The file is encoded in UTF-8.
+ * </p>
+ * 
+ * <p>
+ * The file is memory-mapped a window at a time, so no part of it is copied except the argument being built. Reading stops at the first
+ * error, which is then available from {@link #getError()}.
+ * </p>
+ * 
+ * @author Bagana
+ */
+final class ArgumentFile implements Iterator< String>, Closeable {
+
+	private static final Charset UTF_8 = Charset.forName( "UTF-8");
+	private static final long WINDOW_SIZE = 1 << 26;
+
+	private final String path;
+	private final FileChannel channel;
+	private final long size;
+
+	private MappedByteBuffer window = null;
+	private long windowStart = 0;
+	private long position = 0;
+
+	// the argument being built
+	private byte[] bytes = new byte[ 64];
+	private int length = 0;
+
+	private String next = null;
+	private ArgumentFileException error = null;
+
+	ArgumentFile( final String path) throws IOException {
+		this.path = path;
+		this.channel = FileChannel.open( Paths.get( path), StandardOpenOption.READ);
+		this.size = this.channel.size();
+	}
+
+	ArgumentFileException getError() {
+		return this.error;
+	}
+
+	// -1 at the end of the file
+	private int read() throws IOException {
+		if( this.position == this.size)
+			return -1;
+		if( this.window == null || this.position - this.windowStart == this.window.limit()) {
+			this.windowStart = this.position;
+			this.window =
+					this.channel.map( MapMode.READ_ONLY, this.windowStart, Math.min( ArgumentFile.WINDOW_SIZE, this.size - this.windowStart));
+		}
+		return this.window.get( ( int) ( this.position++ - this.windowStart)) & 0xff;
+	}
+
+	private static boolean isSeparator( final int b) {
+		return b == '\n' || b == '\r' || b == 0;
+	}
+
+	private void append( final int b) {
+		if( this.length == this.bytes.length)
+			this.bytes = Arrays.copyOf( this.bytes, this.length * 2);
+		this.bytes[ this.length++] = ( byte) b;
+	}
+
+	// reads the next argument, null at the end of the file
+	private String readArgument() throws IOException {
+		int b;
+		do
+			b = this.read();
+		while( ArgumentFile.isSeparator( b));
+		if( b < 0)
+			return null;
+
+		this.length = 0;
+		if( b == '"' || b == '\'') {
+			final int quote = b;
+			for( b = this.read(); b != quote; b = this.read()) {
+				if( b == '\\' && quote == '"')
+					b = this.read();
+				if( b < 0) {
+					this.error = new ArgumentFileException( ArgumentFileException.Reason.UNTERMINATED_QUOTE, this.path, null);
+					return null;
+				}
+				this.append( b);
+			}
+			b = this.read();
+		}
+		for( ; b >= 0 && !ArgumentFile.isSeparator( b); b = this.read())
+			this.append( b);
+		return new String( this.bytes, 0, this.length, ArgumentFile.UTF_8);
+	}
+
+	@ Override
+	public boolean hasNext() {
+		if( this.next == null && this.error == null)
+			try {
+				this.next = this.readArgument();
+			} catch( final IOException exception) {
+				this.error = new ArgumentFileException( ArgumentFileException.Reason.UNREADABLE, this.path, exception);
+			}
+		return this.next != null;
+	}
+
+	@ Override
+	public String next() {
+		if( !this.hasNext())
+			throw new NoSuchElementException();
+		final String next = this.next;
+		this.next = null;
+		return next;
+	}
+
+	@ Override
+	public void remove() {
+		throw new UnsupportedOperationException();
+	}
+
+	@ Override
+	public void close() throws IOException {
+		this.window = null;
+		this.channel.close();
+	}
+}
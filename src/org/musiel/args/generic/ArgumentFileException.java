@@ -0,0 +1,42 @@
+/*
+ * Copyright 2014 Bagana <bagana@musiel.org>
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License. You 
+ * may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS, 
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing 
+ * permissions and limitations under the License.
+ */
+package org.musiel.args.generic;
+
+import org.musiel.args.ArgumentException;
+
+public class ArgumentFileException extends ArgumentException {
+
+	private static final long serialVersionUID = -3470129953306482816L;
+
+	public static enum Reason {
+		UNREADABLE, UNTERMINATED_QUOTE
+	}
+
+	private final Reason reason;
+	private final String path;
+
+	public Reason getReason() {
+		return this.reason;
+	}
+
+	public String getPath() {
+		return this.path;
+	}
+
+	public ArgumentFileException( final Reason reason, final String path, final Throwable cause) {
+		super( cause, ArgumentFileException.class.getPackage().getName() + ".exceptions", ArgumentFileException.class.getSimpleName() + "."
+				+ reason.name(), path);
+		this.reason = reason;
+		this.path = path;
+	}
+}
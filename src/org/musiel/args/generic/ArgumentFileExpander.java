@@ -0,0 +1,127 @@
+/*
+ * Copyright 2014 Bagana <bagana@musiel.org>
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License. You 
+ * may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS, 
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing 
+ * permissions and limitations under the License.
+ */
+package org.musiel.args.generic;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.NoSuchElementException;
+
+import org.musiel.args.ArgumentException;
+
+/**
+ * Iterates over a range of an argument array, replacing each argument like "@path" with the arguments in that {@link ArgumentFile}. A file
+ * is opened when the iteration reaches it, and read only as far as the iteration goes. An argument starting with "@@" stands for itself
+ * with the first '@' removed, and arguments from files are never expanded again.
+ * 
+ * <p>
+ * A file is closed as soon as it is read to its end. An iteration that stops before that MUST be ended by {@link #close()}.
+ * </p>
+ * 
+ * <p>
+ * A fail-fast expander ends the iteration at the first error in opening or reading a file.
+ * </p>
+ * 
+ * @author Bagana
+ */
+final class ArgumentFileExpander implements Iterator< String>, Closeable {
+
+	private final String[] args;
+	private int index;
+	private final int end;
+	private final boolean failFast;
+
+	private ArgumentFile file = null;
+	private final Collection< ArgumentException> errors = new LinkedList<>();
+
+	ArgumentFileExpander( final String[] args, final int offset, final int length, final boolean failFast) {
+		this.args = args;
+		this.index = offset;
+		this.end = offset + length;
+		this.failFast = failFast;
+	}
+
+	/**
+	 * Returns the errors encountered so far, in opening or reading the files.
+	 * 
+	 * @return
+	 */
+	Collection< ArgumentException> getErrors() {
+		return Collections.unmodifiableCollection( this.errors);
+	}
+
+	@ Override
+	public boolean hasNext() {
+		for( ;;) {
+			// no file is open here once an error is found
+			if( this.failFast && !this.errors.isEmpty())
+				return false;
+			if( this.file != null) {
+				if( this.file.hasNext())
+					return true;
+				if( this.file.getError() != null)
+					this.errors.add( this.file.getError());
+				this.closeFile();
+			}
+
+			if( this.index == this.end)
+				return false;
+			final String arg = this.args[ this.index];
+			if( !arg.startsWith( "@") || arg.startsWith( "@@") || arg.length() == 1)
+				return true;
+			++this.index;
+			try {
+				this.file = new ArgumentFile( arg.substring( 1));
+			} catch( final IOException exception) {
+				this.errors.add( new ArgumentFileException( ArgumentFileException.Reason.UNREADABLE, arg.substring( 1), exception));
+			}
+		}
+	}
+
+	@ Override
+	public String next() {
+		if( !this.hasNext())
+			throw new NoSuchElementException();
+		if( this.file != null)
+			return this.file.next();
+		final String arg = this.args[ this.index++];
+		return arg.startsWith( "@@")? arg.substring( 1): arg;
+	}
+
+	@ Override
+	public void remove() {
+		throw new UnsupportedOperationException();
+	}
+
+	/**
+	 * Closes the file being read, if any, and ends the iteration.
+	 */
+	@ Override
+	public void close() {
+		if( this.file != null)
+			this.closeFile();
+		this.index = this.end;
+	}
+
+	private void closeFile() {
+		try {
+			this.file.close();
+		} catch( final IOException exception) {
+			// everything needed is read
+		}
+		this.file = null;
+	}
+}
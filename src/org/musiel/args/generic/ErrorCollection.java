@@ -0,0 +1,91 @@
+/*
+ * Copyright 2014 Bagana <bagana@musiel.org>
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License. You 
+ * may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS, 
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing 
+ * permissions and limitations under the License.
+ */
+package org.musiel.args.generic;
+
+import java.util.AbstractCollection;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import org.musiel.args.ArgumentException;
+
+/**
+ * A read-only concatenation of error collections. Nothing is copied, so errors that are created lazily (like those of
+ * {@link org.musiel.args.syntax.AbstractParseResult}) are still not created until this collection is iterated over.
+ * 
+ * @author Bagana
+ */
+public final class ErrorCollection extends AbstractCollection< ArgumentException> {
+
+	private final List< Collection< ? extends ArgumentException>> parts = new ArrayList<>( 4);
+
+	/**
+	 * Appends a collection, which MUST NOT be modified any more, and returns this.
+	 * 
+	 * @param part
+	 * @return
+	 */
+	public ErrorCollection append( final Collection< ? extends ArgumentException> part) {
+		this.parts.add( part);
+		return this;
+	}
+
+	@ Override
+	public int size() {
+		int size = 0;
+		for( final Collection< ? extends ArgumentException> part: this.parts)
+			size += part.size();
+		return size;
+	}
+
+	@ Override
+	public boolean isEmpty() {
+		for( final Collection< ? extends ArgumentException> part: this.parts)
+			if( !part.isEmpty())
+				return false;
+		return true;
+	}
+
+	@ Override
+	public Iterator< ArgumentException> iterator() {
+		return new Iterator< ArgumentException>() {
+
+			private int partIndex = 0;
+			private Iterator< ? extends ArgumentException> iterator = null;
+
+			@ Override
+			public boolean hasNext() {
+				while( this.iterator == null || !this.iterator.hasNext()) {
+					if( this.partIndex == ErrorCollection.this.parts.size())
+						return false;
+					this.iterator = ErrorCollection.this.parts.get( this.partIndex++).iterator();
+				}
+				return true;
+			}
+
+			@ Override
+			public ArgumentException next() {
+				if( !this.hasNext())
+					throw new NoSuchElementException();
+				return this.iterator.next();
+			}
+
+			@ Override
+			public void remove() {
+				throw new UnsupportedOperationException();
+			}
+		};
+	}
+}
@@ -0,0 +1,76 @@
+/*
+ * Copyright 2014 Bagana <bagana@musiel.org>
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License. You 
+ * may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS, 
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing 
+ * permissions and limitations under the License.
+ */
+package org.musiel.args.generic;
+
+import java.util.List;
+
+import org.musiel.args.Option;
+import org.musiel.args.Parser;
+import org.musiel.args.Result;
+
+/**
+ * A view of a frozen {@link AbstractParser}, see {@link AbstractParser#freeze()}. The parser is only referred to by a final field, so its
+ * state, which never changes after it is frozen, is visible to any thread that sees this view.
+ * 
+ * @author Bagana
+ * 
+ * @param <RESULT>
+ */
+final class FrozenParser< RESULT extends Result< ?>> implements Parser< RESULT> {
+
+	private final AbstractParser< RESULT> parser;
+
+	FrozenParser( final AbstractParser< RESULT> parser) {
+		this.parser = parser;
+	}
+
+	@ Override
+	public List< ? extends Option> getOptions() {
+		return this.parser.getOptions();
+	}
+
+	@ Override
+	public Option getOption( final String optionName) {
+		return this.parser.getOption( optionName);
+	}
+
+	@ Override
+	public List< String> getOperandNames() {
+		return this.parser.getOperandNames();
+	}
+
+	@ Override
+	public String getOperandPattern() {
+		return this.parser.getOperandPattern();
+	}
+
+	@ Override
+	public RESULT parse( final String... args) {
+		return this.parser.parse( args);
+	}
+
+	@ Override
+	public RESULT parse( final String[] args, final int offset) {
+		return this.parser.parse( args, offset);
+	}
+
+	@ Override
+	public RESULT parse( final String[] args, final int offset, final int length) {
+		return this.parser.parse( args, offset, length);
+	}
+
+	@ Override
+	public List< RESULT> parseAll( final List< String[]> argsList) {
+		return this.parser.parseAll( argsList);
+	}
+}
@@ -12,11 +12,12 @@
  */
 package org.musiel.args.generic;
 
-import java.util.LinkedList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 
 import org.musiel.args.DefaultAccessor;
+import org.musiel.args.syntax.Syntax.OrderedSyntaxResult;
 import org.musiel.args.syntax.Syntax.SyntaxResult;
 
 public class GenericAccessor implements DefaultAccessor {
@@ -32,12 +33,14 @@ public class GenericAccessor implements DefaultAccessor {
 
 	@ Override
 	public boolean isOccurred( final String optionName) {
-		return !this.getNames( optionName).isEmpty();
+		return this.getOccurrences( optionName) > 0;
 	}
 
 	@ Override
 	public int getOccurrences( final String optionName) {
-		return this.getNames( optionName).size();
+		if( this.syntaxResult instanceof OrderedSyntaxResult)
+			return ( ( OrderedSyntaxResult) this.syntaxResult).getOccurrenceCount( optionName);
+		return this.syntaxResult.getNames( optionName).size();
 	}
 
 	@ Override
@@ -90,10 +93,8 @@ public class GenericAccessor implements DefaultAccessor {
 
 	@ Override
 	public List< String> getOperands( final String operandName) {
-		List< String> list = this.operandMap.get( operandName);
-		if( list == null)
-			this.operandMap.put( operandName, list = new LinkedList<>());
-		return list;
+		final List< String> list = this.operandMap == null? null: this.operandMap.get( operandName);
+		return list == null? Collections.< String> emptyList(): Collections.unmodifiableList( list);
 	}
 
 	@ Override
@@ -40,6 +40,7 @@ public abstract class InternationalizedParser< RESULT extends Result< ?>> extend
 	}
 
 	public void setBundleBase( final String bundleBase) {
+		this.checkNotFrozen();
 		this.bundleBase = bundleBase;
 	}
 
@@ -53,6 +54,7 @@ public abstract class InternationalizedParser< RESULT extends Result< ?>> extend
 	}
 
 	public void setDescription( final String description) {
+		this.checkNotFrozen();
 		this.description = description;
 	}
 
@@ -64,6 +66,7 @@ public abstract class InternationalizedParser< RESULT extends Result< ?>> extend
 	}
 
 	public void setOptionDescription( final String optionName, final String description) {
+		this.checkNotFrozen();
 		final Option option = this.getOption( optionName);
 		if( option == null)
 			throw new IllegalArgumentException( "unknown option: " + optionName);
@@ -80,6 +83,7 @@ public abstract class InternationalizedParser< RESULT extends Result< ?>> extend
 	}
 
 	public void setArgumentName( final String optionName, final String argumentName) {
+		this.checkNotFrozen();
 		final Option option = this.getOption( optionName);
 		if( option == null)
 			throw new IllegalArgumentException( "unknown option: " + optionName);
@@ -96,6 +100,7 @@ public abstract class InternationalizedParser< RESULT extends Result< ?>> extend
 	}
 
 	public void setOperandDescription( final String operandName, final String operandDescription) {
+		this.checkNotFrozen();
 		final Collection< String> operandNames = this.getOperandNames();
 		if( operandNames == null || !operandNames.contains( operandName))
 			throw new IllegalArgumentException( "unknown operand: " + operandName);
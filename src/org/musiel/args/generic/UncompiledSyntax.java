@@ -0,0 +1,89 @@
+/*
+ * Copyright 2014 Bagana <bagana@musiel.org>
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License. You 
+ * may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS, 
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing 
+ * permissions and limitations under the License.
+ */
+package org.musiel.args.generic;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Set;
+
+import org.musiel.args.ArgumentException;
+import org.musiel.args.Option;
+import org.musiel.args.syntax.CompilableSyntax;
+import org.musiel.args.syntax.CompiledSyntax;
+import org.musiel.args.syntax.Syntax;
+import org.musiel.args.syntax.Syntax.SyntaxResult;
+import org.musiel.args.syntax.SyntaxListener;
+
+/**
+ * A {@link CompiledSyntax} over a {@link Syntax} that is not a {@link CompilableSyntax}. Every argument array is handed to
+ * {@link Syntax#parse(Set, String...)} as a whole, so iterators are drained first, and a listener is told the result after the parsing
+ * finishes, option by option rather than in the order of the occurrences.
+ * 
+ * @author Bagana
+ */
+class UncompiledSyntax implements CompiledSyntax {
+
+	private final Syntax syntax;
+	private final Set< Option> options;
+
+	UncompiledSyntax( final Syntax syntax, final Set< Option> options) {
+		this.syntax = syntax;
+		this.options = options;
+	}
+
+	@ Override
+	public Set< Option> getOptions() {
+		return this.options;
+	}
+
+	@ Override
+	public boolean isFailFast() {
+		return false;
+	}
+
+	@ Override
+	public SyntaxResult parse( final String... args) {
+		return this.syntax.parse( this.options, args);
+	}
+
+	@ Override
+	public SyntaxResult parse( final String[] args, final int offset, final int length) {
+		return this.parse( Arrays.copyOfRange( args, offset, offset + length));
+	}
+
+	@ Override
+	public SyntaxResult parse( final Iterator< String> args) {
+		final List< String> list = new LinkedList<>();
+		while( args.hasNext())
+			list.add( args.next());
+		return this.parse( list.toArray( new String[ list.size()]));
+	}
+
+	@ Override
+	public void parse( final Iterator< String> args, final SyntaxListener listener) {
+		final SyntaxResult result = this.parse( args);
+		for( final Option option: this.options) {
+			final List< String> names = result.getNames( option.getName());
+			final List< String> arguments = result.getArguments( option.getName());
+			for( int index = 0; index < names.size(); ++index)
+				listener.onOption( option, names.get( index), arguments.get( index));
+		}
+		for( final String operand: result.getOperands())
+			listener.onOperand( operand);
+		for( final ArgumentException exception: result.getErrors())
+			listener.onError( exception);
+		listener.onEnd();
+	}
+}
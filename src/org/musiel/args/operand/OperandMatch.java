@@ -0,0 +1,140 @@
+/*
+ * Copyright 2014 Bagana <bagana@musiel.org>
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License. You 
+ * may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS, 
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing 
+ * permissions and limitations under the License.
+ */
+package org.musiel.args.operand;
+
+import java.util.AbstractList;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.RandomAccess;
+import java.util.Set;
+
+/**
+ * The result of matching operands against an {@link OperandPattern}, as a read-only map from operand names to operands, sorted by names.
+ * Operands are never copied, the lists are views over the array they were matched from, through the positions of each name, which are
+ * found by a single counting pass over the name of every position.
+ * 
+ * @author Bagana
+ */
+final class OperandMatch extends AbstractMap< String, List< String>> {
+
+	private final String[] names; // sorted
+	private final String[] operands;
+	// positions of operands, grouped by name ids, those of name id n are from offsets[ n] (inclusive) to offsets[ n + 1] (exclusive)
+	private final int[] positions;
+	private final int[] offsets;
+
+	/**
+	 * @param names
+	 *            sorted, not copied
+	 * @param operands
+	 *            not copied
+	 * @param nameIds
+	 *            by operand position, index of its name
+	 * @param size
+	 *            number of operands, the arrays may be longer
+	 */
+	OperandMatch( final String[] names, final String[] operands, final int[] nameIds, final int size) {
+		this.names = names;
+		this.operands = operands;
+		this.offsets = new int[ names.length + 1];
+		for( int position = 0; position < size; ++position)
+			++this.offsets[ nameIds[ position] + 1];
+		for( int nameId = 0; nameId < names.length; ++nameId)
+			this.offsets[ nameId + 1] += this.offsets[ nameId];
+		this.positions = new int[ size];
+		final int[] filled = Arrays.copyOf( this.offsets, names.length);
+		for( int position = 0; position < size; ++position)
+			this.positions[ filled[ nameIds[ position]]++] = position;
+	}
+
+	@ Override
+	public List< String> get( final Object key) {
+		final int nameId = key instanceof String? Arrays.binarySearch( this.names, key): -1;
+		return nameId < 0? null: new OperandView( nameId);
+	}
+
+	@ Override
+	public boolean containsKey( final Object key) {
+		return key instanceof String && Arrays.binarySearch( this.names, key) >= 0;
+	}
+
+	@ Override
+	public int size() {
+		return this.names.length;
+	}
+
+	@ Override
+	public Set< Entry< String, List< String>>> entrySet() {
+		return new AbstractSet< Entry< String, List< String>>>() {
+
+			@ Override
+			public Iterator< Entry< String, List< String>>> iterator() {
+				return new Iterator< Entry< String, List< String>>>() {
+
+					private int nameId = 0;
+
+					@ Override
+					public boolean hasNext() {
+						return this.nameId < OperandMatch.this.names.length;
+					}
+
+					@ Override
+					public Entry< String, List< String>> next() {
+						if( !this.hasNext())
+							throw new NoSuchElementException();
+						final int nameId = this.nameId++;
+						return new SimpleImmutableEntry< String, List< String>>( OperandMatch.this.names[ nameId],
+								new OperandView( nameId));
+					}
+
+					@ Override
+					public void remove() {
+						throw new UnsupportedOperationException();
+					}
+				};
+			}
+
+			@ Override
+			public int size() {
+				return OperandMatch.this.names.length;
+			}
+		};
+	}
+
+	private class OperandView extends AbstractList< String> implements RandomAccess {
+
+		private final int offset;
+		private final int size;
+
+		OperandView( final int nameId) {
+			this.offset = OperandMatch.this.offsets[ nameId];
+			this.size = OperandMatch.this.offsets[ nameId + 1] - this.offset;
+		}
+
+		@ Override
+		public String get( final int index) {
+			if( index < 0 || index >= this.size)
+				throw new IndexOutOfBoundsException( String.valueOf( index));
+			return OperandMatch.this.operands[ OperandMatch.this.positions[ this.offset + index]];
+		}
+
+		@ Override
+		public int size() {
+			return this.size;
+		}
+	}
+}
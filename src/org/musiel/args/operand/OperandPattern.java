@@ -12,53 +12,154 @@
  */
 package org.musiel.args.operand;
 
+import java.math.BigInteger;
+import java.util.AbstractList;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.BitSet;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
-import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.NoSuchElementException;
+import java.util.RandomAccess;
 import java.util.Set;
-import java.util.TreeMap;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import org.musiel.args.operand.OperandException.Reason;
 
 public class OperandPattern {
 
-	private static final Pattern TOKENS = Pattern.compile( "^(?:(" //
-			+ "[a-zA-Z\\-0-9]+)" + "|(" // operand name: input-file, a, b
-			+ "\\[|\\]" + "|" // optional: [ input-file ]
-			+ "\\.\\.\\." + "|" // repeatable: input-file...
-			+ "\\(|\\)" + "|" // parentheses: ( input-data input-style )...
-			+ "\\|" // selection: [ input-file | input-data input-style ]
-			+ "))\\s*");
-
-	private static List< String> tokenize( final String pattern, final Set< String> names) {
-		final List< String> tokens = new ArrayList<>();
-		Matcher matcher;
-		for( CharSequence remaining = pattern.trim(); remaining.length() > 0; remaining =
-				remaining.subSequence( matcher.group().length(), remaining.length()))
-			if( !( matcher = OperandPattern.TOKENS.matcher( remaining)).find())
-				throw new IllegalArgumentException( "invalid pattern: " + pattern);
-			else if( matcher.group( 1) == null)
-				tokens.add( matcher.group( 2));
-			else {
-				names.add( matcher.group( 1));
-				tokens.add( matcher.group( 1));
+	// token kinds
+	private static final int NAME = 0; // operand name: input-file, a, b
+	private static final int OPTIONAL_START = 1; // optional: [ input-file ]
+	private static final int OPTIONAL_END = 2;
+	private static final int GROUP_START = 3; // parentheses: ( input-data input-style )...
+	private static final int GROUP_END = 4;
+	private static final int REPEAT = 5; // repeatable: input-file...
+	private static final int SELECT = 6; // selection: [ input-file | input-data input-style ]
+	private static final String[] TOKEN_TEXTS = { null, "[", "]", "(", ")", "...", "|"};
+
+	// a pattern split into tokens, by a single pass over its characters
+	private static class Tokens {
+
+		private final String pattern;
+		private int count = 0;
+		private int[] kinds;
+		private String[] names; // for names only, equal names are the same instance
+		private int[] positions; // in the pattern
+		private int[] bounds; // for a starting parenthesis or bracket, index of the ending one
+
+		Tokens( final String pattern, final Set< String> names) {
+			this.pattern = pattern;
+			this.kinds = new int[ 16];
+			this.names = new String[ 16];
+			this.positions = new int[ 16];
+			this.bounds = new int[ 16];
+
+			final Map< String, String> interned = new HashMap<>();
+			int[] starts = new int[ 8]; // token indices of parentheses and brackets not ended yet
+			int depth = 0;
+			for( int position = 0; position < pattern.length();) {
+				final char c = pattern.charAt( position);
+				if( Tokens.isWhitespace( c)) {
+					++position;
+					continue;
+				}
+				if( Tokens.isNameCharacter( c)) {
+					int end = position + 1;
+					while( end < pattern.length() && Tokens.isNameCharacter( pattern.charAt( end)))
+						++end;
+					final String name = pattern.substring( position, end);
+					String existing = interned.get( name);
+					if( existing == null) {
+						interned.put( name, existing = name);
+						names.add( name);
+					}
+					this.add( OperandPattern.NAME, existing, position);
+					position = end;
+					continue;
+				}
+				switch( c) {
+					case '[':
+					case '(':
+						if( depth == starts.length)
+							starts = Arrays.copyOf( starts, depth * 2);
+						starts[ depth++] = this.count;
+						this.add( c == '['? OperandPattern.OPTIONAL_START: OperandPattern.GROUP_START, null, position);
+						break;
+					case ']':
+					case ')':
+						final int kind = c == ']'? OperandPattern.OPTIONAL_END: OperandPattern.GROUP_END;
+						if( depth == 0)
+							throw this.newException( "unexpected \"" + c + "\"", position);
+						if( this.kinds[ starts[ depth - 1]] != kind - 1)
+							throw this.newException(
+									"\"" + OperandPattern.TOKEN_TEXTS[ this.kinds[ starts[ depth - 1]] + 1] + "\" expected", position);
+						this.bounds[ starts[ --depth]] = this.count;
+						this.add( kind, null, position);
+						break;
+					case '.':
+						if( !pattern.startsWith( "...", position))
+							throw this.newException( "\"...\" expected", position);
+						this.add( OperandPattern.REPEAT, null, position);
+						position += 2;
+						break;
+					case '|':
+						this.add( OperandPattern.SELECT, null, position);
+						break;
+					default:
+						throw this.newException( "invalid character '" + c + "'", position);
+				}
+				++position;
+			}
+			if( depth > 0)
+				throw this.newException( "\"" + OperandPattern.TOKEN_TEXTS[ this.kinds[ starts[ depth - 1]] + 1] + "\" expected", pattern
+						.length());
+		}
+
+		private static boolean isWhitespace( final char c) {
+			return c == ' ' || c == '\t' || c == '\n' || c == '\u000b' || c == '\f' || c == '\r';
+		}
+
+		private static boolean isNameCharacter( final char c) {
+			return c >= 'a' && c <= 'z' || c >= 'A' && c <= 'Z' || c >= '0' && c <= '9' || c == '-';
+		}
+
+		private void add( final int kind, final String name, final int position) {
+			if( this.count == this.kinds.length) {
+				this.kinds = Arrays.copyOf( this.kinds, this.count * 2);
+				this.names = Arrays.copyOf( this.names, this.count * 2);
+				this.positions = Arrays.copyOf( this.positions, this.count * 2);
+				this.bounds = Arrays.copyOf( this.bounds, this.count * 2);
 			}
-		return tokens;
+			this.kinds[ this.count] = kind;
+			this.names[ this.count] = name;
+			this.positions[ this.count] = position;
+			++this.count;
+		}
+
+		IllegalArgumentException newException( final String message, final int position) {
+			return new IllegalArgumentException( message + " at position " + position + " of pattern: " + this.pattern);
+		}
+
+		IllegalArgumentException newUnexpectedTokenException( final int token) {
+			if( token == this.count)
+				return this.newException( "token expected", this.pattern.length());
+			return this.newException( "unexpected \"" + OperandPattern.TOKEN_TEXTS[ this.kinds[ token]] + "\"", this.positions[ token]);
+		}
 	}
 
 	private String pattern = null;
 	private List< String> names;
+	private String[] sortedNames;
 
 	public String getPattern() {
 		return this.pattern;
@@ -68,62 +169,81 @@ public class OperandPattern {
 		return this.names;
 	}
 
+	// compiled patterns are immutable, and shared by all callers compiling the same pattern string
+	private static final int CACHE_SIZE = 256;
+	private static final ConcurrentMap< String, OperandPattern> CACHE = new ConcurrentHashMap<>();
+
+	/**
+	 * Compiles an operand pattern, or returns the instance compiled earlier for the same pattern string. Instances are immutable and safe
+	 * to be shared among threads, everything about the pattern is found out here once.
+	 * 
+	 * @param pattern
+	 * @return
+	 * @throws IllegalArgumentException
+	 *             if the pattern is not valid
+	 */
 	public static OperandPattern compile( final String pattern) {
+		final OperandPattern cached = OperandPattern.CACHE.get( pattern);
+		if( cached != null)
+			return cached;
+
+		final OperandPattern compiled = OperandPattern.compileUncached( pattern);
+		if( OperandPattern.CACHE.size() >= OperandPattern.CACHE_SIZE) {
+			// bounded by evicting an arbitrary entry, a miss only costs compiling again
+			final Iterator< String> iterator = OperandPattern.CACHE.keySet().iterator();
+			if( iterator.hasNext()) {
+				iterator.next();
+				iterator.remove();
+			}
+		}
+		final OperandPattern existing = OperandPattern.CACHE.putIfAbsent( pattern, compiled);
+		return existing == null? compiled: existing;
+	}
+
+	private static OperandPattern compileUncached( final String pattern) {
 		final Set< String> names = new LinkedHashSet<>();
-		final List< String> tokens = OperandPattern.tokenize( pattern, names);
-		final OperandPattern matcher =
-				tokens.isEmpty()? new OperandPattern(): OperandPattern
-						.compile( tokens.toArray( new String[ tokens.size()]), 0, tokens.size());
+		final Tokens tokens = new Tokens( pattern, names);
+		final OperandPattern matcher = tokens.count == 0? new OperandPattern(): OperandPattern.compile( tokens, 0, tokens.count);
 		matcher.pattern = pattern;
 		matcher.names = Collections.unmodifiableList( new LinkedList<>( names));
+		matcher.sortedNames = names.toArray( new String[ names.size()]);
+		Arrays.sort( matcher.sortedNames);
+		matcher.determinize();
+		matcher.analyze();
 		return matcher;
 	}
 
-	private static int findRightBound( final String left, final String right, final String[] tokens, final int from, final int limit) {
-		for( int level = 1, pointer = from; pointer < limit; ++pointer)
-			if( left.equals( tokens[ pointer]))
-				++level;
-			else if( right.equals( tokens[ pointer])) {
-				--level;
-				if( level == 0)
-					return pointer;
-			}
-		throw new IllegalArgumentException( "\"" + right + "\" expected");
-	}
-
-	private static OperandPattern compile( final String[] tokens, final int offset, final int length) {
+	private static OperandPattern compile( final Tokens tokens, final int offset, final int length) {
 		final LinkedList< LinkedList< OperandPattern>> alternatives = new LinkedList<>(); // parts separated by '|'
 		LinkedList< OperandPattern> alternative = new LinkedList<>(); // concatenated parts in one alternative
 		for( int pointer = offset; pointer < offset + length; ++pointer)
-			switch( tokens[ pointer]) {
-				case "...":
+			switch( tokens.kinds[ pointer]) {
+				case OperandPattern.REPEAT:
 					if( alternative.isEmpty())
-						throw new IllegalArgumentException( "unexpected \"...\"");
+						throw tokens.newUnexpectedTokenException( pointer);
 					alternative.getLast().repeat();
 					break;
-				case "(": // just feeling lazy, did the two at once...
-				case "[":
-					final int rightParenthesis =
-							OperandPattern.findRightBound( tokens[ pointer], "(".equals( tokens[ pointer])? ")": "]", tokens, pointer + 1,
-									offset + length);
+				case OperandPattern.GROUP_START: // just feeling lazy, did the two at once...
+				case OperandPattern.OPTIONAL_START:
+					final int rightParenthesis = tokens.bounds[ pointer];
 					alternative.add( OperandPattern.compile( tokens, pointer + 1, rightParenthesis - pointer - 1));
-					if( "[".equals( tokens[ pointer]))
+					if( tokens.kinds[ pointer] == OperandPattern.OPTIONAL_START)
 						alternative.getLast().optional();
 					pointer = rightParenthesis;
 					break;
-				case "|":
+				case OperandPattern.SELECT:
 					if( alternative.isEmpty())
-						throw new IllegalArgumentException( "unexpected \"|\"");
+						throw tokens.newUnexpectedTokenException( pointer);
 					alternatives.add( alternative);
 					alternative = new LinkedList<>();
 					break;
 				default:
-					alternative.add( new OperandPattern( tokens[ pointer]));
+					alternative.add( new OperandPattern( tokens.names[ pointer]));
 			}
 
 		if( alternative.isEmpty())
 			// empty pattern won't be passed in, so there must be something beyond the boundary
-			throw new IllegalArgumentException( "token expected before \"" + tokens[ offset + length] + "\"");
+			throw tokens.newUnexpectedTokenException( offset + length);
 		alternatives.add( alternative);
 		return OperandPattern.combineAlternatives( alternatives);
 	}
@@ -145,6 +265,18 @@ public class OperandPattern {
 	private final State initialState;
 	private final Set< State> nonInitialStates = new HashSet<>();
 
+	// the automaton above, compiled for matching. operands are not distinguishable by themselves, so each transition consumes exactly one
+	// operand whatever the token is, and the deterministic automaton has a single transition from each of its states, to the set of
+	// states reachable with one more operand
+	private State[] states; // by state index
+	private int[][] successors; // by state index, indices of states a transition leads to
+	private String[][] successorTokens; // tokens of the transitions above
+	private int[][] predecessors; // by state index (the initial state is 0), indices of states with a transition to it
+	private int[][] predecessorNameIds; // tokens of the transitions above, as indices in the sorted names
+	private BitSet[] stateSets; // by deterministic state index (the initial set is 0)
+	private int[] nextStateSets; // by deterministic state index, -1 for the empty set
+	private int[] finalStates; // by deterministic state index, the final state in the set, -1 for none, -2 for more than one
+
 	// ◎
 	private OperandPattern() {
 		this.initialState = new State( true);
@@ -231,13 +363,9 @@ public class OperandPattern {
 		this.nonInitialStates.addAll( machine.nonInitialStates);
 	}
 
-	public boolean isAmbiguous() {
-		return this.findAmbiguityExample() != null;
-	}
-
-	public String[][] findAmbiguityExample() {
+	private void determinize() {
 		final State[] states = new State[ this.nonInitialStates.size() + 1];
-		states[ 0] = this.initialState; // initial state is assumed at index 0 below
+		states[ 0] = this.initialState;
 		int index = 1;
 		for( final State state: this.nonInitialStates)
 			states[ index++] = state;
@@ -245,74 +373,155 @@ public class OperandPattern {
 		for( int i = 0; i < states.length; ++i)
 			stateIndices.put( states[ i], Integer.valueOf( i));
 
-		// an additional vertex is added to represent a single final state, every actual final state has a transition to there
-		final int graphSize = states.length + 1;
-		final boolean[][] graph = new boolean[ graphSize][ graphSize];
+		final int[] predecessorCounts = new int[ states.length];
 		for( final State from: states)
 			for( final State to: from.transitions.keySet())
-				graph[ stateIndices.get( from).intValue()][ stateIndices.get( to).intValue()] = true;
-		// this is adding additional transitions mentioned above
-		for( final State state: states)
-			if( state.finalState)
-				graph[ stateIndices.get( state).intValue()][ states.length] = true;
-
-		// now the task is to find a pair of different paths from state 0 to the final state with the same length. we construct a new graph
-		// of V * V * { true, false}, where each V corresponds to one of the paths, and the boolean dimension indicates whether the two
-		// paths have already been different
-		final boolean[][] paired = new boolean[ graphSize * graphSize * 2][ graphSize * graphSize * 2];
-		final boolean[] BOOL = new boolean[]{ false, true};
-		for( int from1 = 0; from1 < graphSize; ++from1)
-			for( int from2 = 0; from2 < graphSize; ++from2)
-				for( int fromD = 0, from = graphSize * 2 * from1 + 2 * from2; fromD < 2; ++fromD, ++from)
-					for( int to1 = 0; to1 < graphSize; ++to1)
-						for( int to2 = 0; to2 < graphSize; ++to2)
-							for( int toD = 0, to = graphSize * 2 * to1 + 2 * to2; toD < 2; ++toD, ++to)
-								paired[ from][ to] =
-										graph[ from1][ to1] && graph[ from2][ to2] && BOOL[ toD] == ( BOOL[ fromD] || from1 != from2 || to1 != to2);
-		// 0 = initial state WITHOUT separation; .length - 1 = the added final state WITH separation.
-		// If such a path exists, it means there are at least two different paths connects the initial state and the added final state in
-		// the same number of steps
-		final int[] pathPair = OperandPattern.findShortestPath( paired, 0, paired.length - 1);
-		if( pathPair == null)
-			return null;
+				++predecessorCounts[ stateIndices.get( to).intValue()];
+		this.predecessors = new int[ states.length][];
+		this.predecessorNameIds = new int[ states.length][];
+		for( int i = 0; i < states.length; ++i) {
+			this.predecessors[ i] = new int[ predecessorCounts[ i]];
+			this.predecessorNameIds[ i] = new int[ predecessorCounts[ i]];
+			predecessorCounts[ i] = 0;
+		}
+		final int[][] successors = new int[ states.length][];
+		this.states = states;
+		this.successors = successors;
+		this.successorTokens = new String[ states.length][];
+		for( int from = 0; from < states.length; ++from) {
+			successors[ from] = new int[ states[ from].transitions.size()];
+			this.successorTokens[ from] = new String[ successors[ from].length];
+			int successor = 0;
+			for( final Entry< State, String> transition: states[ from].transitions.entrySet()) {
+				final int to = stateIndices.get( transition.getKey()).intValue();
+				this.successorTokens[ from][ successor] = transition.getValue();
+				successors[ from][ successor++] = to;
+				this.predecessors[ to][ predecessorCounts[ to]] = from;
+				this.predecessorNameIds[ to][ predecessorCounts[ to]++] = Arrays.binarySearch( this.sortedNames, transition.getValue());
+			}
+		}
 
-		// -1 is to drop the initial step. the added final step never got into the result of shorted path searching
-		final String[][] paths = new String[ 2][ pathPair.length - 1];
-		State state1 = this.initialState;
-		State state2 = this.initialState;
-		for( int i = 1; i < pathPair.length; ++i) {
-			final State nextState1 = states[ pathPair[ i] / 2 / graphSize];
-			final State nextState2 = states[ pathPair[ i] / 2 % graphSize];
-			paths[ 0][ i - 1] = state1.transitions.get( nextState1);
-			paths[ 1][ i - 1] = state2.transitions.get( nextState2);
-			state1 = nextState1;
-			state2 = nextState2;
+		// with a single input symbol, the sets reachable with 0, 1, 2... operands form a chain, which ends at the empty set or loops back
+		final List< BitSet> stateSets = new ArrayList<>();
+		final Map< BitSet, Integer> stateSetIndices = new HashMap<>();
+		final List< Integer> nextStateSets = new ArrayList<>();
+		BitSet stateSet = new BitSet( states.length);
+		stateSet.set( 0);
+		while( !stateSet.isEmpty() && !stateSetIndices.containsKey( stateSet)) {
+			stateSetIndices.put( stateSet, Integer.valueOf( stateSets.size()));
+			stateSets.add( stateSet);
+			final BitSet nextStateSet = new BitSet( states.length);
+			for( int from = stateSet.nextSetBit( 0); from >= 0; from = stateSet.nextSetBit( from + 1))
+				for( final int to: successors[ from])
+					nextStateSet.set( to);
+			nextStateSets.add( nextStateSet.isEmpty()? Integer.valueOf( -1): stateSetIndices.containsKey( nextStateSet)? stateSetIndices
+					.get( nextStateSet): Integer.valueOf( stateSets.size()));
+			stateSet = nextStateSet;
+		}
+
+		this.stateSets = stateSets.toArray( new BitSet[ stateSets.size()]);
+		this.nextStateSets = new int[ this.stateSets.length];
+		this.finalStates = new int[ this.stateSets.length];
+		for( int set = 0; set < this.stateSets.length; ++set) {
+			this.nextStateSets[ set] = nextStateSets.get( set).intValue();
+			this.finalStates[ set] = -1;
+			for( int state = this.stateSets[ set].nextSetBit( 0); state >= 0; state = this.stateSets[ set].nextSetBit( state + 1))
+				if( states[ state].finalState)
+					this.finalStates[ set] = this.finalStates[ set] == -1? state: -2;
 		}
-		return paths;
 	}
 
-	private static int[] findShortestPath( final boolean[][] graph, final int from, final int to) {
-		final LinkedHashMap< Integer, int[]> toBeVisited = new LinkedHashMap<>();
-		toBeVisited.put( Integer.valueOf( from), new int[]{});
-		final boolean[] visitedOrQueued = new boolean[ graph.length];
-		visitedOrQueued[ from] = true;
-		while( !toBeVisited.isEmpty()) {
-			final Integer beingVisited = toBeVisited.keySet().iterator().next();
-			final int[] path = toBeVisited.remove( beingVisited);
-			final int[] updatedPath = Arrays.copyOf( path, path.length + 1);
-			updatedPath[ updatedPath.length - 1] = beingVisited.intValue();
-			final boolean[] adjacencyRow = graph[ beingVisited.intValue()];
-			for( int connected = 0; connected < adjacencyRow.length; ++connected)
-				if( adjacencyRow[ connected]) {
-					if( connected == to)
-						return updatedPath; // see? to is not added to the result
-					if( visitedOrQueued[ connected])
+	// answers of the queries below, found out at compile time
+	private String[][] ambiguityExample;
+	private final Set< String> multipleOccurrencePossibleNames = new HashSet<>();
+	private final Set< String> absencePossibleNames = new HashSet<>();
+
+	private void analyze() {
+		this.ambiguityExample = this.searchAmbiguityExample();
+		for( final String name: this.names) {
+			if( this.searchMultipleOccurrence( name))
+				this.multipleOccurrencePossibleNames.add( name);
+			if( this.searchAbsence( name))
+				this.absencePossibleNames.add( name);
+		}
+	}
+
+	public boolean isAmbiguous() {
+		return this.ambiguityExample != null;
+	}
+
+	/**
+	 * Finds two different sequences of tokens of the same length, both accepted by this pattern, which makes matching ambiguous.
+	 * 
+	 * @return two sequences, or <code>null</code> if this pattern is not ambiguous
+	 */
+	public String[][] findAmbiguityExample() {
+		return this.ambiguityExample == null? null: new String[][]{ this.ambiguityExample[ 0].clone(), this.ambiguityExample[ 1].clone()};
+	}
+
+	private String[][] searchAmbiguityExample() {
+		// the task is to find a pair of different paths from the initial state to final states with the same length. we walk both paths at
+		// once, in a product automaton whose vertices are ( state1, state2, whether the two paths have already been different). an
+		// additional state is added to represent a single final state, every actual final state has a transition to there, so that the
+		// target is ( added, added, true). vertices are only created when reached, breadth first, so the first path found is the shortest.
+		// vertices are numbered ( state1 * graphSize + state2) * 2 + different, in longs, as the square of the state count may not fit
+		final int added = this.states.length;
+		final int graphSize = this.states.length + 1;
+		final long from = 0; // ( 0, 0, false)
+		final long to = ( ( long) added * graphSize + added) * 2 + 1;
+		final Map< Long, Long> parents = new HashMap<>(); // by vertex, also the set of vertices reached
+		parents.put( Long.valueOf( from), Long.valueOf( -1));
+		long[] queue = new long[ 16];
+		int head = 0;
+		int tail = 0;
+		queue[ tail++] = from;
+		search: while( head < tail) {
+			final long vertex = queue[ head++];
+			final int from1 = ( int) ( vertex / 2 / graphSize);
+			final int from2 = ( int) ( vertex / 2 % graphSize);
+			final boolean fromDifferent = vertex % 2 == 1;
+			if( from1 == added || from2 == added)
+				continue; // the added state has no transitions
+			for( int next1 = 0; next1 <= this.successors[ from1].length; ++next1) {
+				final int to1 =
+						next1 < this.successors[ from1].length? this.successors[ from1][ next1]: this.states[ from1].finalState? added: -1;
+				for( int next2 = 0; to1 >= 0 && next2 <= this.successors[ from2].length; ++next2) {
+					final int to2 =
+							next2 < this.successors[ from2].length? this.successors[ from2][ next2]: this.states[ from2].finalState? added
+									: -1;
+					if( to2 < 0)
+						continue;
+					final boolean toDifferent = fromDifferent || from1 != from2 || to1 != to2;
+					final long next = ( ( long) to1 * graphSize + to2) * 2 + ( toDifferent? 1: 0);
+					if( parents.containsKey( Long.valueOf( next)))
 						continue;
-					visitedOrQueued[ connected] = true;
-					toBeVisited.put( Integer.valueOf( connected), updatedPath);
+					parents.put( Long.valueOf( next), Long.valueOf( vertex));
+					if( next == to)
+						break search;
+					if( tail == queue.length)
+						queue = Arrays.copyOf( queue, tail * 2);
+					queue[ tail++] = next;
 				}
+			}
 		}
-		return null;
+		if( !parents.containsKey( Long.valueOf( to)))
+			return null;
+
+		// the last step, into the added final state, is not a token
+		int length = 0;
+		for( long vertex = parents.get( Long.valueOf( to)).longValue(); vertex != from; vertex =
+				parents.get( Long.valueOf( vertex)).longValue())
+			++length;
+		final String[][] paths = new String[ 2][ length];
+		for( long vertex = parents.get( Long.valueOf( to)).longValue(); vertex != from; --length) {
+			final long parent = parents.get( Long.valueOf( vertex)).longValue();
+			paths[ 0][ length - 1] =
+					this.states[ ( int) ( parent / 2 / graphSize)].transitions.get( this.states[ ( int) ( vertex / 2 / graphSize)]);
+			paths[ 1][ length - 1] =
+					this.states[ ( int) ( parent / 2 % graphSize)].transitions.get( this.states[ ( int) ( vertex / 2 % graphSize)]);
+			vertex = parent;
+		}
+		return paths;
 	}
 
 	public boolean isMoreThanOneOperandsPossible() {
@@ -329,6 +538,10 @@ public class OperandPattern {
 	public boolean isMultipleOccurrencePossible( final String operandName) {
 		if( !this.names.contains( operandName))
 			throw new IllegalArgumentException();
+		return this.multipleOccurrencePossibleNames.contains( operandName);
+	}
+
+	private boolean searchMultipleOccurrence( final String operandName) {
 
 		final Set< State> allStates = new HashSet<>( this.nonInitialStates);
 		allStates.add( this.initialState);
@@ -353,6 +566,11 @@ public class OperandPattern {
 	}
 
 	public boolean isAbsencePossible( final String operandName) {
+		// a pattern always accepts something, so an operand not in it is always absent in some way
+		return !this.names.contains( operandName) || this.absencePossibleNames.contains( operandName);
+	}
+
+	private boolean searchAbsence( final String operandName) {
 		if( this.initialState.finalState)
 			return true;
 		// try to find a path from initial state to any final state, with all transitions on the specified operand ignored
@@ -377,85 +595,288 @@ public class OperandPattern {
 		return false;
 	}
 
-	private static class Explorer {
+	/**
+	 * Returns all different sequences of tokens of a length accepted by this pattern. The number of sequences may grow exponentially with
+	 * the length, see {@link #iterateSequences(int)} and {@link #countSequences(int)}.
+	 * 
+	 * @param length
+	 * @return
+	 */
+	public Set< String[]> getSequences( final int length) {
+		final Set< String[]> result = new LinkedHashSet<>();
+		for( final Iterator< String[]> iterator = this.iterateSequences( length); iterator.hasNext();)
+			result.add( iterator.next());
+		return result;
+	}
 
-		private final String[] path;
-		private final State state;
+	/**
+	 * Enumerates all different sequences of tokens of a length accepted by this pattern, lazily, in lexicographical order. Memory used is
+	 * bounded by the length times the size of the pattern, however many sequences there are.
+	 * 
+	 * @param length
+	 * @return an iterator returning a new array each time
+	 */
+	public Iterator< String[]> iterateSequences( final int length) {
+		if( length < 0)
+			throw new IllegalArgumentException( String.valueOf( length));
+		return new SequenceIterator( length);
+	}
 
-		public Explorer( final String[] path, final State state) {
-			super();
-			this.path = path;
-			this.state = state;
+	/**
+	 * Counts the paths of a length through this pattern, without enumerating them. Unless the pattern is ambiguous, that is the number of
+	 * sequences {@link #iterateSequences(int)} would return, as every sequence is accepted in only one way.
+	 * 
+	 * @param length
+	 * @return
+	 */
+	public BigInteger countSequences( final int length) {
+		if( length < 0)
+			throw new IllegalArgumentException( String.valueOf( length));
+		// paths of the current length from the initial state, by the state they end at
+		BigInteger[] counts = new BigInteger[ this.states.length];
+		Arrays.fill( counts, BigInteger.ZERO);
+		counts[ 0] = BigInteger.ONE;
+		for( int step = 0; step < length; ++step) {
+			final BigInteger[] nextCounts = new BigInteger[ this.states.length];
+			Arrays.fill( nextCounts, BigInteger.ZERO);
+			for( int from = 0; from < this.states.length; ++from)
+				if( counts[ from].signum() > 0)
+					for( final int to: this.successors[ from])
+						nextCounts[ to] = nextCounts[ to].add( counts[ from]);
+			counts = nextCounts;
 		}
+		BigInteger count = BigInteger.ZERO;
+		for( int state = 0; state < this.states.length; ++state)
+			if( this.states[ state].finalState)
+				count = count.add( counts[ state]);
+		return count;
 	}
 
-	public Set< String[]> getSequences( final int length) {
-		List< Explorer> explorers = new LinkedList<>();
-		explorers.add( new Explorer( new String[ 0], this.initialState));
-		for( int i = 0; i < length; ++i) {
-			final List< Explorer> updatedExplorers = new LinkedList<>();
-			for( final Explorer explorer: explorers)
-				for( final Entry< State, String> transition: explorer.state.transitions.entrySet()) {
-					final String[] updatedPath = Arrays.copyOf( explorer.path, explorer.path.length + 1);
-					updatedPath[ updatedPath.length - 1] = transition.getValue();
-					updatedExplorers.add( new Explorer( updatedPath, transition.getKey()));
+	// a depth-first search over sets of states, a set for each length of prefix, so that a sequence accepted in different ways is found
+	// only once. only states that can still reach a final state with the remaining tokens are kept, so every branch ends with a sequence
+	private class SequenceIterator implements Iterator< String[]> {
+
+		private final int length;
+		private final BitSet[] finishing; // by the number of tokens, states that reach a final state with exactly that many tokens
+		private final BitSet[] stateSets; // by depth, the states the current prefix leads to
+		private final String[][] choices; // by depth, tokens that may follow the current prefix, sorted
+		private final int[] chosen; // by depth, index of the current choice
+		private final String[] sequence;
+		private int depth;
+		private boolean found = false;
+
+		SequenceIterator( final int length) {
+			this.length = length;
+			this.finishing = new BitSet[ length + 1];
+			this.finishing[ 0] = new BitSet( OperandPattern.this.states.length);
+			for( int state = 0; state < OperandPattern.this.states.length; ++state)
+				if( OperandPattern.this.states[ state].finalState)
+					this.finishing[ 0].set( state);
+			for( int tokens = 1; tokens <= length; ++tokens) {
+				this.finishing[ tokens] = new BitSet( OperandPattern.this.states.length);
+				final BitSet next = this.finishing[ tokens - 1];
+				for( int state = next.nextSetBit( 0); state >= 0; state = next.nextSetBit( state + 1))
+					for( final int predecessor: OperandPattern.this.predecessors[ state])
+						this.finishing[ tokens].set( predecessor);
+			}
+
+			this.stateSets = new BitSet[ length + 1];
+			this.choices = new String[ length][];
+			this.chosen = new int[ length];
+			this.sequence = new String[ length];
+			if( !this.finishing[ length].get( 0))
+				this.depth = -1;
+			else if( length == 0) {
+				this.depth = -1;
+				this.found = true;
+			} else {
+				this.stateSets[ 0] = new BitSet( OperandPattern.this.states.length);
+				this.stateSets[ 0].set( 0);
+				this.enter( 0);
+			}
+		}
+
+		private void enter( final int depth) {
+			final Set< String> tokens = new TreeSet<>();
+			final BitSet stateSet = this.stateSets[ depth];
+			final BitSet finishing = this.finishing[ this.length - depth - 1];
+			for( int state = stateSet.nextSetBit( 0); state >= 0; state = stateSet.nextSetBit( state + 1))
+				for( int transition = 0; transition < OperandPattern.this.successors[ state].length; ++transition)
+					if( finishing.get( OperandPattern.this.successors[ state][ transition]))
+						tokens.add( OperandPattern.this.successorTokens[ state][ transition]);
+			this.depth = depth;
+			this.choices[ depth] = tokens.toArray( new String[ tokens.size()]);
+			this.chosen[ depth] = -1;
+		}
+
+		@ Override
+		public boolean hasNext() {
+			while( !this.found && this.depth >= 0)
+				if( ++this.chosen[ this.depth] == this.choices[ this.depth].length)
+					--this.depth;
+				else {
+					final String token = this.choices[ this.depth][ this.chosen[ this.depth]];
+					this.sequence[ this.depth] = token;
+					final BitSet stateSet = this.stateSets[ this.depth];
+					final BitSet finishing = this.finishing[ this.length - this.depth - 1];
+					final BitSet nextStateSet = new BitSet( OperandPattern.this.states.length);
+					for( int state = stateSet.nextSetBit( 0); state >= 0; state = stateSet.nextSetBit( state + 1))
+						for( int transition = 0; transition < OperandPattern.this.successors[ state].length; ++transition)
+							if( token.equals( OperandPattern.this.successorTokens[ state][ transition])
+									&& finishing.get( OperandPattern.this.successors[ state][ transition]))
+								nextStateSet.set( OperandPattern.this.successors[ state][ transition]);
+					this.stateSets[ this.depth + 1] = nextStateSet;
+					if( this.depth + 1 == this.length)
+						this.found = true;
+					else
+						this.enter( this.depth + 1);
 				}
-			explorers = updatedExplorers;
+			return this.found;
+		}
+
+		@ Override
+		public String[] next() {
+			if( !this.hasNext())
+				throw new NoSuchElementException();
+			this.found = false;
+			return this.sequence.clone();
+		}
+
+		@ Override
+		public void remove() {
+			throw new UnsupportedOperationException();
 		}
-		final Set< String[]> result = new HashSet<>();
-		for( final Explorer explorer: explorers)
-			if( explorer.state.finalState)
-				result.add( explorer.path);
-		return result;
 	}
 
 	public Map< String, List< String>> match( final String... operands) throws OperandException {
-		final List< String> list = new LinkedList<>();
-		Collections.addAll( list, operands);
-		return this.match( list);
+		return this.match( Arrays.asList( operands));
 	}
 
+	/**
+	 * Matches operands against this pattern, in time linear to the number of operands.
+	 * 
+	 * @param operands
+	 * @return the operands by name, every name is present
+	 * @throws OperandException
+	 *             if there are too many or too few operands
+	 * @throws IllegalStateException
+	 *             if the operands can be matched in more than one way, which happens only if this pattern is ambiguous
+	 */
 	public Map< String, List< String>> match( final List< String> operands) throws OperandException {
-		List< Explorer> explorers = new LinkedList<>();
-		explorers.add( new Explorer( new String[ 0], this.initialState));
-		for( int i = 0; i < operands.size(); ++i) {
-			final List< Explorer> updatedExplorers = new LinkedList<>();
-			for( final Explorer explorer: explorers)
-				for( final Entry< State, String> transition: explorer.state.transitions.entrySet()) {
-					final String[] updatedPath = Arrays.copyOf( explorer.path, explorer.path.length + 1);
-					updatedPath[ updatedPath.length - 1] = transition.getValue();
-					updatedExplorers.add( new Explorer( updatedPath, transition.getKey()));
-				}
-			explorers = updatedExplorers;
-
-			if( explorers.isEmpty())
+		final Matcher matcher = this.newMatcher();
+		for( final String operand: operands)
+			if( !matcher.offer( operand))
 				throw new OperandException( Reason.TOO_MANY);
+		return matcher.getResult();
+	}
+
+	/**
+	 * Returns a new matcher, which takes operands one by one.
+	 * 
+	 * @return
+	 */
+	public Matcher newMatcher() {
+		return new Matcher();
+	}
+
+	/**
+	 * Matches operands against the pattern incrementally. Every operand offered is matched immediately, so that too many operands are
+	 * noticed at the first one exceeding the limit. A matcher is a read-only list of the operands accepted so far. Not thread-safe.
+	 * 
+	 * @author Bagana
+	 */
+	public class Matcher extends AbstractList< String> implements RandomAccess {
+
+		private String[] operands = new String[ 8];
+		private int size = 0;
+		// the deterministic state after each operand, only tracked until there are too many operands
+		private int[] stateSetPath = new int[ 8];
+		private boolean tooMany = false;
+
+		private Matcher() {
 		}
 
-		final Set< String[]> haltingPaths = new HashSet<>();
-		for( final Explorer explorer: explorers)
-			if( explorer.state.finalState)
-				haltingPaths.add( explorer.path);
-		if( haltingPaths.isEmpty())
-			throw new OperandException( Reason.TOO_FEW);
-		if( haltingPaths.size() > 1)
-			throw new IllegalStateException( "the pattern is ambiguous, should not be used for matching");
-		final String[] path = haltingPaths.iterator().next();
-
-		final Map< String, List< String>> result = new TreeMap<>();
-		final Iterator< String> operandIterator = operands.iterator();
-		for( final String operandName: path) {
-			List< String> list = result.get( operandName);
-			if( list == null) {
-				list = new LinkedList<>();
-				result.put( operandName, list);
+		/**
+		 * Matches an operand and keeps it, unless there are too many operands, in which case it is refused.
+		 * 
+		 * @param operand
+		 * @return <code>false</code> if the operand is refused, see {@link #isTooMany()}
+		 */
+		public boolean offer( final String operand) {
+			if( this.tooMany)
+				return false;
+			final int next = OperandPattern.this.nextStateSets[ this.stateSetPath[ this.size]];
+			if( next < 0) {
+				this.tooMany = true;
+				return false;
 			}
-			list.add( operandIterator.next());
+
+			if( this.size == this.operands.length)
+				this.operands = Arrays.copyOf( this.operands, this.size * 2);
+			this.operands[ this.size++] = operand;
+			if( this.size == this.stateSetPath.length)
+				this.stateSetPath = Arrays.copyOf( this.stateSetPath, this.size * 2);
+			this.stateSetPath[ this.size] = next;
+			return true;
+		}
+
+		@ Override
+		public String get( final int index) {
+			if( index < 0 || index >= this.size)
+				throw new IndexOutOfBoundsException( String.valueOf( index));
+			return this.operands[ index];
+		}
+
+		@ Override
+		public int size() {
+			return this.size;
+		}
+
+		/**
+		 * Returns whether there have been more operands than the pattern accepts, since which every operand is refused.
+		 * 
+		 * @return
+		 */
+		public boolean isTooMany() {
+			return this.tooMany;
+		}
+
+		/**
+		 * Returns the operands added so far, by name. The lists are read-only views over the operands, which are not copied.
+		 * 
+		 * @return sorted by names, every name is present
+		 * @throws OperandException
+		 *             if there are too many or too few operands
+		 * @throws IllegalStateException
+		 *             if the operands can be matched in more than one way, which happens only if the pattern is ambiguous
+		 */
+		public Map< String, List< String>> getResult() throws OperandException {
+			if( this.tooMany)
+				throw new OperandException( Reason.TOO_MANY);
+			int state = OperandPattern.this.finalStates[ this.stateSetPath[ this.size]];
+			if( state == -1)
+				throw new OperandException( Reason.TOO_FEW);
+			if( state == -2)
+				throw new IllegalStateException( "the pattern is ambiguous, should not be used for matching");
+
+			// backward, each state has only one predecessor in the previous set, unless the match is ambiguous
+			final int[] path = new int[ this.size];
+			for( int i = this.size; i > 0; --i) {
+				final BitSet previousStates = OperandPattern.this.stateSets[ this.stateSetPath[ i - 1]];
+				final int[] predecessors = OperandPattern.this.predecessors[ state];
+				int found = -1;
+				for( int predecessor = 0; predecessor < predecessors.length; ++predecessor)
+					if( previousStates.get( predecessors[ predecessor]))
+						if( found >= 0)
+							throw new IllegalStateException( "the pattern is ambiguous, should not be used for matching");
+						else
+							found = predecessor;
+				path[ i - 1] = OperandPattern.this.predecessorNameIds[ state][ found];
+				state = predecessors[ found];
+			}
+
+			return new OperandMatch( OperandPattern.this.sortedNames, this.operands, path, this.size);
 		}
-		for( final String operandName: this.names)
-			if( !result.containsKey( operandName))
-				result.put( operandName, new LinkedList< String>());
-		return result;
 	}
 
 	private static class State {
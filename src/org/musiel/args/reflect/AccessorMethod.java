@@ -0,0 +1,155 @@
+/*
+ * Copyright 2014 Bagana <bagana@musiel.org>
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License. You 
+ * may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS, 
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing 
+ * permissions and limitations under the License.
+ */
+package org.musiel.args.reflect;
+
+import java.lang.reflect.Method;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.musiel.args.DefaultAccessor;
+
+/**
+ * The methods of {@link DefaultAccessor}, each calling its counterpart directly, so that a model proxy forwards them without reflection.
+ * 
+ * @author Bagana
+ */
+enum AccessorMethod {
+
+	IS_OCCURRED( "isOccurred", 1) {
+
+		@ Override
+		Object call( final DefaultAccessor accessor, final Object[] args) {
+			return Boolean.valueOf( accessor.isOccurred( ( String) args[ 0]));
+		}
+	},
+	GET_OCCURRENCES( "getOccurrences", 1) {
+
+		@ Override
+		Object call( final DefaultAccessor accessor, final Object[] args) {
+			return Integer.valueOf( accessor.getOccurrences( ( String) args[ 0]));
+		}
+	},
+	GET_NAMES( "getNames", 1) {
+
+		@ Override
+		Object call( final DefaultAccessor accessor, final Object[] args) {
+			return accessor.getNames( ( String) args[ 0]);
+		}
+	},
+	GET_NAMES_AS_ARRAY( "getNamesAsArray", 1) {
+
+		@ Override
+		Object call( final DefaultAccessor accessor, final Object[] args) {
+			return accessor.getNamesAsArray( ( String) args[ 0]);
+		}
+	},
+	GET_NAME( "getName", 1) {
+
+		@ Override
+		Object call( final DefaultAccessor accessor, final Object[] args) {
+			return accessor.getName( ( String) args[ 0]);
+		}
+	},
+	GET_ARGUMENTS( "getArguments", 1) {
+
+		@ Override
+		Object call( final DefaultAccessor accessor, final Object[] args) {
+			return accessor.getArguments( ( String) args[ 0]);
+		}
+	},
+	GET_ARGUMENTS_AS_ARRAY( "getArgumentsAsArray", 1) {
+
+		@ Override
+		Object call( final DefaultAccessor accessor, final Object[] args) {
+			return accessor.getArgumentsAsArray( ( String) args[ 0]);
+		}
+	},
+	GET_ARGUMENT( "getArgument", 1) {
+
+		@ Override
+		Object call( final DefaultAccessor accessor, final Object[] args) {
+			return accessor.getArgument( ( String) args[ 0]);
+		}
+	},
+	GET_OPERANDS( "getOperands", 0) {
+
+		@ Override
+		Object call( final DefaultAccessor accessor, final Object[] args) {
+			return accessor.getOperands();
+		}
+	},
+	GET_OPERANDS_AS_ARRAY( "getOperandsAsArray", 0) {
+
+		@ Override
+		Object call( final DefaultAccessor accessor, final Object[] args) {
+			return accessor.getOperandsAsArray();
+		}
+	},
+	GET_OPERAND( "getOperand", 0) {
+
+		@ Override
+		Object call( final DefaultAccessor accessor, final Object[] args) {
+			return accessor.getOperand();
+		}
+	},
+	GET_NAMED_OPERANDS( "getOperands", 1) {
+
+		@ Override
+		Object call( final DefaultAccessor accessor, final Object[] args) {
+			return accessor.getOperands( ( String) args[ 0]);
+		}
+	},
+	GET_NAMED_OPERANDS_AS_ARRAY( "getOperandsAsArray", 1) {
+
+		@ Override
+		Object call( final DefaultAccessor accessor, final Object[] args) {
+			return accessor.getOperandsAsArray( ( String) args[ 0]);
+		}
+	},
+	GET_NAMED_OPERAND( "getOperand", 1) {
+
+		@ Override
+		Object call( final DefaultAccessor accessor, final Object[] args) {
+			return accessor.getOperand( ( String) args[ 0]);
+		}
+	};
+
+	private final String name;
+	private final int parameterCount;
+
+	private AccessorMethod( final String name, final int parameterCount) {
+		this.name = name;
+		this.parameterCount = parameterCount;
+	}
+
+	abstract Object call( DefaultAccessor accessor, Object[] args);
+
+	private static final Map< Method, AccessorMethod> METHODS = new HashMap<>();
+	static {
+		for( final Method method: DefaultAccessor.class.getMethods()) {
+			for( final AccessorMethod accessorMethod: AccessorMethod.values())
+				if( accessorMethod.name.equals( method.getName()) && accessorMethod.parameterCount == method.getParameterTypes().length)
+					AccessorMethod.METHODS.put( method, accessorMethod);
+			if( !AccessorMethod.METHODS.containsKey( method))
+				throw new ExceptionInInitializerError( "not supported: " + method);
+		}
+	}
+
+	/**
+	 * @param method
+	 * @return <code>null</code> if the method is not declared by {@link DefaultAccessor}
+	 */
+	static AccessorMethod forMethod( final Method method) {
+		return AccessorMethod.METHODS.get( method);
+	}
+}
@@ -36,8 +36,12 @@ public @ interface BigDecimalValue {
 		}
 
 		@ Override
-		protected BigDecimal cast( final BigDecimal decoded) {
-			return decoded;
+		public BigDecimal decode( final String string) throws DecoderException {
+			try {
+				return new BigDecimal( string);
+			} catch( final NumberFormatException formatException) {
+				throw this.newInvalidValueException( string);
+			}
 		}
 	}
 }
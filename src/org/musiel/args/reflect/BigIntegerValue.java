@@ -31,10 +31,21 @@ public @ interface BigIntegerValue {
 
 	public String max() default "";
 
-	static class Decoder extends IntegerNumberDecoder< BigInteger> {
+	static class Decoder implements org.musiel.args.reflect.Decoder< BigInteger> {
+
+		private final int radix;
+		private final BigInteger min;
+		private final BigInteger max;
+		private final String rangeInString;
 
 		public Decoder( final int radix, final String min, final String max) {
-			super( radix, min, max);
+			super();
+			if( radix < 2 || radix > 36)
+				throw new IllegalArgumentException( "radix out of range");
+			this.radix = radix;
+			this.min = min == null || min.equals( "")? null: new BigInteger( min);
+			this.max = max == null || max.equals( "")? null: new BigInteger( max);
+			this.rangeInString = ( this.min != null? "[" + this.min: "(-∞") + ", " + ( this.max != null? this.max + "]": "+∞)");
 		}
 
 		public Decoder( final BigIntegerValue annotation) {
@@ -46,8 +57,17 @@ public @ interface BigIntegerValue {
 		}
 
 		@ Override
-		protected BigInteger cast( final BigInteger decoded) {
-			return decoded;
+		public BigInteger decode( final String string) throws DecoderException {
+			try {
+				final BigInteger decoded = new BigInteger( string, this.radix);
+				if( this.min != null && decoded.compareTo( this.min) < 0 || this.max != null && decoded.compareTo( this.max) > 0)
+					throw new DecoderException( BigIntegerValue.class.getPackage().getName() + ".exceptions", "constraint",
+							"value out of range " + this.rangeInString, string);
+				return decoded;
+			} catch( final NumberFormatException formatException) {
+				throw new DecoderException( BigIntegerValue.class.getPackage().getName() + ".exceptions", "invalid-value",
+						"an integer number", string);
+			}
 		}
 	}
 }
@@ -17,7 +17,6 @@ import java.lang.annotation.Inherited;
 import java.lang.annotation.Retention;
 import java.lang.annotation.RetentionPolicy;
 import java.lang.annotation.Target;
-import java.math.BigInteger;
 
 @ Retention( RetentionPolicy.RUNTIME)
 @ Target( ElementType.METHOD)
@@ -34,7 +33,7 @@ public @ interface ByteValue {
 	static class Decoder extends IntegerNumberDecoder< Byte> {
 
 		public Decoder( final int radix, final String min, final String max) {
-			super( radix, min, max);
+			super( radix, min, max, Byte.MIN_VALUE, Byte.MAX_VALUE);
 		}
 
 		public Decoder( final ByteValue annotation) {
@@ -46,8 +45,8 @@ public @ interface ByteValue {
 		}
 
 		@ Override
-		protected Byte cast( final BigInteger decoded) {
-			return Byte.valueOf( decoded.byteValue());
+		public Byte decode( final String string) throws DecoderException {
+			return Byte.valueOf( ( byte) this.decodeLong( string));
 		}
 	}
 }
@@ -22,31 +22,43 @@ public class DecoderException extends ArgumentException {
 	private static final long serialVersionUID = 7996264514095528394L;
 
 	private final DecoderException cause;
+	// whether the message of the cause is to be appended to a message given directly
+	private final boolean causeAppended;
 
 	public DecoderException( final String message) {
 		super( message);
 		this.cause = null;
+		this.causeAppended = false;
 	}
 
 	public DecoderException( final String messageBundleBase, final String messageKey, final Object... messageParameters) {
 		super( messageBundleBase, messageKey, messageParameters);
 		this.cause = null;
+		this.causeAppended = false;
 	}
 
 	public DecoderException( final DecoderException cause, final String message) {
-		super( message + ": " + cause.getMessage());
+		super( message);
 		this.cause = cause;
+		this.causeAppended = true;
 	}
 
 	public DecoderException( final DecoderException cause, final String messageBundleBase, final String messageKey,
 			final Object... messageParameters) {
 		super( messageBundleBase, messageKey, messageParameters);
 		this.cause = cause;
+		this.causeAppended = false;
+	}
+
+	// the message of the cause is only looked up when needed, and in the requested locale
+	@ Override
+	public String getMessage( final Locale locale) {
+		return this.causeAppended? super.getMessage( locale) + ": " + this.cause.getMessage( locale): super.getMessage( locale);
 	}
 
 	@ Override
 	protected String[] getLocalizedParameters( final Locale locale) {
-		if( this.cause == null)
+		if( this.cause == null || this.causeAppended)
 			return super.getLocalizedParameters( locale);
 		final String[] params = super.getLocalizedParameters( locale);
 		final String[] causeAdded = Arrays.copyOf( params, params.length + 1);
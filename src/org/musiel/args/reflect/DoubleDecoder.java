@@ -0,0 +1,23 @@
+/*
+ * Copyright 2014 Bagana <bagana@musiel.org>
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License. You 
+ * may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS, 
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing 
+ * permissions and limitations under the License.
+ */
+package org.musiel.args.reflect;
+
+/**
+ * A {@link Decoder} of double values, which can also be decoded without boxing.
+ * 
+ * @author Bagana
+ */
+public interface DoubleDecoder extends Decoder< Double> {
+
+	public double decodeDouble( String stringRepresentation) throws DecoderException;
+}
@@ -17,7 +17,6 @@ import java.lang.annotation.Inherited;
 import java.lang.annotation.Retention;
 import java.lang.annotation.RetentionPolicy;
 import java.lang.annotation.Target;
-import java.math.BigDecimal;
 
 @ Retention( RetentionPolicy.RUNTIME)
 @ Target( ElementType.METHOD)
@@ -25,7 +24,7 @@ import java.math.BigDecimal;
 @ DecoderAnnotation( DoubleValue.Decoder.class)
 public @ interface DoubleValue {
 
-	static class Decoder extends FloatNumberDecoder< Double> {
+	static class Decoder extends FloatNumberDecoder< Double> implements DoubleDecoder {
 
 		public Decoder( final DoubleValue annotation) {
 			this();
@@ -36,8 +35,13 @@ public @ interface DoubleValue {
 		}
 
 		@ Override
-		protected Double cast( final BigDecimal decoded) {
-			return Double.valueOf( decoded.doubleValue());
+		public double decodeDouble( final String string) throws DecoderException {
+			return Double.parseDouble( this.check( string));
+		}
+
+		@ Override
+		public Double decode( final String string) throws DecoderException {
+			return Double.valueOf( this.decodeDouble( string));
 		}
 	}
 }
@@ -12,20 +12,54 @@
  */
 package org.musiel.args.reflect;
 
-import java.math.BigDecimal;
-
+/**
+ * Decodes floating point numbers. The syntax accepted is that of {@link java.math.BigDecimal#BigDecimal(String)} (with ASCII digits),
+ * whatever type a number is decoded to, but a number is checked against it as it is, and then parsed without an intermediate
+ * {@link java.math.BigDecimal}.
+ * 
+ * @author Bagana
+ * @param <T>
+ */
 abstract class FloatNumberDecoder< T> implements Decoder< T> {
 
-	@ Override
-	public T decode( final String string) throws DecoderException {
-		try {
-			final BigDecimal decoded = new BigDecimal( string);
-			return this.cast( decoded);
-		} catch( final NumberFormatException formatException) {
-			throw new DecoderException( FloatNumberDecoder.class.getPackage().getName() + ".exceptions", "invalid-value",
-					"a floating point number", string);
+	/**
+	 * Checks the syntax of a number, and returns it.
+	 * 
+	 * @param string
+	 * @return
+	 * @throws DecoderException
+	 */
+	protected String check( final String string) throws DecoderException {
+		final int length = string.length();
+		int index = length > 0 && ( string.charAt( 0) == '+' || string.charAt( 0) == '-')? 1: 0;
+		int digits = 0;
+		for( ; index < length && FloatNumberDecoder.isDigit( string.charAt( index)); ++index)
+			++digits;
+		if( index < length && string.charAt( index) == '.')
+			for( ++index; index < length && FloatNumberDecoder.isDigit( string.charAt( index)); ++index)
+				++digits;
+		if( digits == 0)
+			throw this.newInvalidValueException( string);
+		if( index < length && ( string.charAt( index) == 'e' || string.charAt( index) == 'E')) {
+			if( ++index < length && ( string.charAt( index) == '+' || string.charAt( index) == '-'))
+				++index;
+			final int exponentStart = index;
+			while( index < length && FloatNumberDecoder.isDigit( string.charAt( index)))
+				++index;
+			if( index == exponentStart)
+				throw this.newInvalidValueException( string);
 		}
+		if( index < length)
+			throw this.newInvalidValueException( string);
+		return string;
 	}
 
-	protected abstract T cast( BigDecimal decoded);
+	private static boolean isDigit( final char c) {
+		return c >= '0' && c <= '9';
+	}
+
+	protected DecoderException newInvalidValueException( final String string) {
+		return new DecoderException( FloatNumberDecoder.class.getPackage().getName() + ".exceptions", "invalid-value",
+				"a floating point number", string);
+	}
 }
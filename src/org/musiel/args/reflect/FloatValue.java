@@ -17,7 +17,6 @@ import java.lang.annotation.Inherited;
 import java.lang.annotation.Retention;
 import java.lang.annotation.RetentionPolicy;
 import java.lang.annotation.Target;
-import java.math.BigDecimal;
 
 @ Retention( RetentionPolicy.RUNTIME)
 @ Target( ElementType.METHOD)
@@ -36,8 +35,8 @@ public @ interface FloatValue {
 		}
 
 		@ Override
-		protected Float cast( final BigDecimal decoded) {
-			return Float.valueOf( decoded.floatValue());
+		public Float decode( final String string) throws DecoderException {
+			return Float.valueOf( Float.parseFloat( this.check( string)));
 		}
 	}
 }
@@ -0,0 +1,29 @@
+/*
+ * Copyright 2014 Bagana <bagana@musiel.org>
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License. You 
+ * may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS, 
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing 
+ * permissions and limitations under the License.
+ */
+package org.musiel.args.reflect;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a model interface, for which {@link ModelProcessor} generates a parser at compile time. The parser is put in the package of the
+ * interface, and named after it with "Parser" appended (prefixed with the names of enclosing types, joined by '_', for a nested interface).
+ * 
+ * @author Bagana
+ */
+@ Target( ElementType.TYPE)
+@ Retention( RetentionPolicy.SOURCE)
+public @ interface GenerateParser {
+}
@@ -0,0 +1,147 @@
+/*
+ * Copyright 2014 Bagana <bagana@musiel.org>
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License. You 
+ * may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS, 
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing 
+ * permissions and limitations under the License.
+ */
+package org.musiel.args.reflect;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+
+import org.musiel.args.ArgumentException;
+import org.musiel.args.ArgumentPolicy;
+import org.musiel.args.DefaultAccessor;
+import org.musiel.args.Option;
+import org.musiel.args.Result;
+import org.musiel.args.generic.AbstractResult;
+import org.musiel.args.generic.ErrorCollection;
+import org.musiel.args.generic.GenericAccessor;
+import org.musiel.args.generic.InternationalizedParser;
+import org.musiel.args.syntax.Syntax;
+import org.musiel.args.syntax.Syntax.SyntaxResult;
+
+/**
+ * Base of parsers generated by {@link ModelProcessor} for model interfaces annotated {@link GenerateParser}. What {@link ReflectParser}
+ * finds out by reflection is written down in the constructor of a generated parser instead, and the model is implemented by a plain class,
+ * so that neither reflection nor proxies are used at run time. Otherwise a generated parser behaves the same as a {@link ReflectParser} of
+ * the same model, and reports the same errors.
+ * 
+ * @author Bagana
+ * @param <MODEL>
+ */
+public abstract class GeneratedParser< MODEL> extends InternationalizedParser< Result< MODEL>> {
+
+	private final org.musiel.args.operand.OperandPattern operandPattern;
+	private MethodHandler[] methodHandlers = new MethodHandler[ 0];
+	private Object[] undecodedValues = new Object[ 0];
+
+	/**
+	 * @param syntax
+	 * @param operandPattern
+	 *            value of the {@link OperandPattern} annotation of the model, or null if absent
+	 */
+	protected GeneratedParser( final Syntax syntax, final String operandPattern) {
+		super( syntax);
+		this.operandPattern = operandPattern == null? null: org.musiel.args.operand.OperandPattern.compile( operandPattern);
+		if( operandPattern != null)
+			this.setOperandPattern( operandPattern);
+	}
+
+	@ Override
+	protected Option newOption( final boolean required, final boolean repeatable, final ArgumentPolicy argumentPolicy, final String name,
+			final String... aliases) {
+		return super.newOption( required, repeatable, argumentPolicy, name, aliases);
+	}
+
+	private void addMethodHandler( final MethodHandler methodHandler, final Class< ?> returnType) {
+		final int slot = this.methodHandlers.length;
+		this.methodHandlers = Arrays.copyOf( this.methodHandlers, slot + 1);
+		this.undecodedValues = Arrays.copyOf( this.undecodedValues, slot + 1);
+		this.methodHandlers[ slot] = methodHandler;
+		if( returnType.isPrimitive())
+			this.undecodedValues[ slot] = PrimitiveType.forPrimitiveType( returnType).getDefaultValue();
+	}
+
+	/**
+	 * Adds an option method of the model, whose value is then passed to {@link #newModel(Object[], DefaultAccessor)} at the next index.
+	 * An absent annotation is represented by null.
+	 * 
+	 * @param returnType
+	 * @param decoder
+	 *            decoder declared on the method, or null to use the default one of the return type
+	 * @param decoderReturnType
+	 *            return type of the method "decode(String)" of the declared decoder, or null if there is not one
+	 * @param defaultValue
+	 * @param environmentVariableName
+	 * @param required
+	 * @param repeatable
+	 * @param argument
+	 * @param description
+	 * @param argumentName
+	 * @param names
+	 *            names of the {@link org.musiel.args.reflect.Option} annotation, or the one constructed from the method name if absent
+	 */
+	protected void addOption( final Class< ?> returnType, final Decoder< ?> decoder, final Class< ?> decoderReturnType,
+			final String defaultValue, final String environmentVariableName, final Boolean required, final Boolean repeatable,
+			final ArgumentPolicy argument, final String description, final String argumentName, final String... names) {
+		this.checkNotFrozen();
+		final OptionHandler optionHandler =
+				new OptionHandler( MethodHandler.getValueConstructor( returnType, decoder, decoderReturnType), defaultValue,
+						environmentVariableName, required, repeatable, argument, description, argumentName, names);
+		optionHandler.register( this);
+		this.addMethodHandler( optionHandler, returnType);
+	}
+
+	/**
+	 * Adds an operand method of the model, whose value is then passed to {@link #newModel(Object[], DefaultAccessor)} at the next index.
+	 * 
+	 * @param returnType
+	 * @param decoder
+	 *            decoder declared on the method, or null to use the default one of the return type
+	 * @param decoderReturnType
+	 *            return type of the method "decode(String)" of the declared decoder, or null if there is not one
+	 * @param defaultValue
+	 * @param environmentVariableName
+	 * @param operandName
+	 *            value of the {@link Operands} annotation
+	 */
+	protected void addOperands( final Class< ?> returnType, final Decoder< ?> decoder, final Class< ?> decoderReturnType,
+			final String defaultValue, final String environmentVariableName, final String operandName) {
+		this.checkNotFrozen();
+		this.addMethodHandler( new OperandHandler( MethodHandler.getValueConstructor( returnType, decoder, decoderReturnType), defaultValue,
+				environmentVariableName, operandName, this.operandPattern), returnType);
+	}
+
+	/**
+	 * Creates an instance of the model.
+	 * 
+	 * @param values
+	 *            values of the methods, in the order they are added
+	 * @param basicAccessor
+	 *            to which the methods of {@link DefaultAccessor} are delegated, if the model extends it
+	 * @return
+	 */
+	protected abstract MODEL newModel( Object[] values, DefaultAccessor basicAccessor);
+
+	@ Override
+	protected Result< MODEL> adapt( final SyntaxResult syntaxResult, final Map< String, List< String>> operands,
+			final Collection< ? extends ArgumentException> parseTimeExceptions) {
+		final GenericAccessor basicAccessor = new GenericAccessor( syntaxResult, operands);
+		final Collection< ArgumentException> decodingExceptions = new LinkedHashSet<>();
+		final Object[] values =
+				MethodHandler.decodeAll( this.methodHandlers, this.undecodedValues, basicAccessor, parseTimeExceptions, this.isFailFast(),
+						decodingExceptions);
+		return new AbstractResult< MODEL>( new ErrorCollection().append( parseTimeExceptions).append( decodingExceptions), this.newModel(
+				values, basicAccessor));
+	}
+}
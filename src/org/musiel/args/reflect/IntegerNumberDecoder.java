@@ -12,38 +12,95 @@
  */
 package org.musiel.args.reflect;
 
-import java.math.BigInteger;
-
+/**
+ * Decodes integer numbers of a type no wider than long. A number is parsed directly from its characters, and checked for overflow and
+ * against the range of the decoder as it is, so nothing is allocated unless the number is invalid.
+ * 
+ * @author Bagana
+ * @param <T>
+ */
 abstract class IntegerNumberDecoder< T> implements Decoder< T> {
 
 	private final int radix;
-	private final BigInteger min;
-	private final BigInteger max;
+	private final long min;
+	private final long max;
 	private final String rangeInString;
 
-	protected IntegerNumberDecoder( final int radix, final String min, final String max) {
+	/**
+	 * @param radix
+	 * @param min
+	 *            lower bound in decimal, or empty for that of the type
+	 * @param max
+	 *            upper bound in decimal, or empty for that of the type
+	 * @param typeMin
+	 *            lower bound of the type
+	 * @param typeMax
+	 *            upper bound of the type
+	 */
+	protected IntegerNumberDecoder( final int radix, final String min, final String max, final long typeMin, final long typeMax) {
 		super();
 		if( radix < 2 || radix > 36)
 			throw new IllegalArgumentException( "radix out of range");
 		this.radix = radix;
-		this.min = min == null || min.equals( "")? null: new BigInteger( min);
-		this.max = max == null || max.equals( "")? null: new BigInteger( max);
-		this.rangeInString = ( this.min != null? "[" + this.min: "(-∞") + ", " + ( this.max != null? this.max + "]": "+∞)");
+		this.min = min == null || min.equals( "")? typeMin: Math.max( typeMin, IntegerNumberDecoder.parseBound( min));
+		this.max = max == null || max.equals( "")? typeMax: Math.min( typeMax, IntegerNumberDecoder.parseBound( max));
+		this.rangeInString = "[" + this.min + ", " + this.max + "]";
 	}
 
-	@ Override
-	public T decode( final String string) throws DecoderException {
+	private static long parseBound( final String bound) {
 		try {
-			final BigInteger decoded = new BigInteger( string, this.radix);
-			if( this.min != null && decoded.compareTo( this.min) < 0 || this.max != null && decoded.compareTo( this.max) > 0)
-				throw new DecoderException( IntegerNumberDecoder.class.getPackage().getName() + ".exceptions", "constraint",
-						"value out of range " + this.rangeInString, string);
-			return this.cast( decoded);
-		} catch( final NumberFormatException formatException) {
-			throw new DecoderException( IntegerNumberDecoder.class.getPackage().getName() + ".exceptions", "invalid-value",
-					"an integer number", string);
+			return Long.parseLong( bound);
+		} catch( final NumberFormatException exception) {
+			// beyond the range of long, and so of any type decoded to
+			if( bound.matches( "[+-]?[0-9]+"))
+				return bound.startsWith( "-")? Long.MIN_VALUE: Long.MAX_VALUE;
+			throw exception;
 		}
 	}
 
-	protected abstract T cast( BigInteger decoded);
+	/**
+	 * Decodes a number, which is then in the range of this decoder.
+	 * 
+	 * @param string
+	 * @return
+	 * @throws DecoderException
+	 */
+	public long decodeLong( final String string) throws DecoderException {
+		final int length = string.length();
+		final boolean negative = length > 0 && string.charAt( 0) == '-';
+		int index = negative || length > 0 && string.charAt( 0) == '+'? 1: 0;
+		if( index == length)
+			throw this.newInvalidValueException( string);
+
+		// accumulated negatively, as Long.MIN_VALUE has no positive counterpart
+		final long multiplicationLimit = Long.MIN_VALUE / this.radix;
+		long accumulated = 0;
+		boolean overflow = false;
+		for( ; index < length; ++index) {
+			final int digit = Character.digit( string.charAt( index), this.radix);
+			if( digit < 0)
+				throw this.newInvalidValueException( string);
+			if( overflow || accumulated < multiplicationLimit || accumulated * this.radix < Long.MIN_VALUE + digit)
+				overflow = true; // still going on, as an invalid digit takes precedence
+			else
+				accumulated = accumulated * this.radix - digit;
+		}
+		if( overflow || !negative && accumulated == Long.MIN_VALUE)
+			throw this.newOutOfRangeException( string);
+
+		final long decoded = negative? accumulated: -accumulated;
+		if( decoded < this.min || decoded > this.max)
+			throw this.newOutOfRangeException( string);
+		return decoded;
+	}
+
+	private DecoderException newInvalidValueException( final String string) {
+		return new DecoderException( IntegerNumberDecoder.class.getPackage().getName() + ".exceptions", "invalid-value",
+				"an integer number", string);
+	}
+
+	private DecoderException newOutOfRangeException( final String string) {
+		return new DecoderException( IntegerNumberDecoder.class.getPackage().getName() + ".exceptions", "constraint",
+				"value out of range " + this.rangeInString, string);
+	}
 }
@@ -17,7 +17,6 @@ import java.lang.annotation.Inherited;
 import java.lang.annotation.Retention;
 import java.lang.annotation.RetentionPolicy;
 import java.lang.annotation.Target;
-import java.math.BigInteger;
 
 @ Retention( RetentionPolicy.RUNTIME)
 @ Target( ElementType.METHOD)
@@ -31,10 +30,10 @@ public @ interface IntegerValue {
 
 	public String max() default "" + Integer.MAX_VALUE;
 
-	static class Decoder extends IntegerNumberDecoder< Integer> {
+	static class Decoder extends IntegerNumberDecoder< Integer> implements IntDecoder {
 
 		public Decoder( final int radix, final String min, final String max) {
-			super( radix, min, max);
+			super( radix, min, max, Integer.MIN_VALUE, Integer.MAX_VALUE);
 		}
 
 		public Decoder( final IntegerValue annotation) {
@@ -46,8 +45,13 @@ public @ interface IntegerValue {
 		}
 
 		@ Override
-		protected Integer cast( final BigInteger decoded) {
-			return Integer.valueOf( decoded.intValue());
+		public int decodeInt( final String string) throws DecoderException {
+			return ( int) this.decodeLong( string);
+		}
+
+		@ Override
+		public Integer decode( final String string) throws DecoderException {
+			return Integer.valueOf( this.decodeInt( string));
 		}
 	}
 }
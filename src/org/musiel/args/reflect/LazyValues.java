@@ -0,0 +1,102 @@
+/*
+ * Copyright 2014 Bagana <bagana@musiel.org>
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License. You 
+ * may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS, 
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing 
+ * permissions and limitations under the License.
+ */
+package org.musiel.args.reflect;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import org.musiel.args.ArgumentException;
+import org.musiel.args.DefaultAccessor;
+import org.musiel.args.generic.ErrorCollection;
+
+/**
+ * Values of the methods of a model, each decoded when it is first requested, and then kept. Thread-safe: concurrent requests for the same
+ * value may decode it more than once, but all of them get the value kept by the first one finishing.
+ * 
+ * @author Bagana
+ */
+final class LazyValues {
+
+	// a decoded value with the exceptions found decoding it, kept together so that one is never seen without the other
+	private static final class Decoded {
+
+		private final Object value;
+		private final List< DecoderException> exceptions;
+
+		private Decoded( final Object value, final List< DecoderException> exceptions) {
+			this.value = value;
+			this.exceptions = exceptions;
+		}
+	}
+
+	private final MethodHandler[] methodHandlers;
+	private final Object[] undecodedValues;
+	private final DefaultAccessor accessor;
+	private final Collection< ? extends ArgumentException> parseTimeExceptions;
+	private final boolean failFast;
+	// by slot, null when not decoded yet
+	private final AtomicReferenceArray< Decoded> decoded;
+
+	LazyValues( final MethodHandler[] methodHandlers, final Object[] undecodedValues, final DefaultAccessor accessor,
+			final Collection< ? extends ArgumentException> parseTimeExceptions, final boolean failFast) {
+		this.methodHandlers = methodHandlers;
+		this.undecodedValues = undecodedValues;
+		this.accessor = accessor;
+		this.parseTimeExceptions = parseTimeExceptions;
+		this.failFast = failFast;
+		this.decoded = new AtomicReferenceArray<>( methodHandlers.length);
+	}
+
+	Object get( final int slot) {
+		// as in eager decoding, nothing is decoded once parsing failed fast
+		if( this.failFast && !this.parseTimeExceptions.isEmpty())
+			return this.undecodedValues[ slot];
+		return this.decode( slot).value;
+	}
+
+	private Decoded decode( final int slot) {
+		final Decoded kept = this.decoded.get( slot);
+		if( kept != null)
+			return kept;
+		final List< DecoderException> exceptions = new ArrayList<>( 0);
+		final Object value = this.methodHandlers[ slot].decode( this.accessor, new ExceptionHandler< DecoderException>() {
+
+			@ Override
+			public void handle( final DecoderException exception) {
+				exceptions.add( exception);
+			}
+		});
+		this.decoded.compareAndSet( slot, null, new Decoded( value, exceptions));
+		return this.decoded.get( slot);
+	}
+
+	/**
+	 * Decodes every value not decoded yet, and returns all exceptions, including those found while parsing.
+	 * 
+	 * @return
+	 */
+	Collection< ArgumentException> getErrors() {
+		final ErrorCollection errors = new ErrorCollection().append( this.parseTimeExceptions);
+		if( this.failFast && !this.parseTimeExceptions.isEmpty())
+			return errors;
+		for( int slot = 0; slot < this.methodHandlers.length; ++slot) {
+			final List< DecoderException> exceptions = this.decode( slot).exceptions;
+			errors.append( exceptions);
+			if( this.failFast && !exceptions.isEmpty())
+				break;
+		}
+		return errors;
+	}
+}
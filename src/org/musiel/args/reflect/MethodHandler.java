@@ -19,14 +19,17 @@ import java.lang.reflect.Method;
 import java.math.BigDecimal;
 import java.math.BigInteger;
 import java.net.URL;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
 import java.util.regex.Pattern;
 
+import org.musiel.args.ArgumentException;
 import org.musiel.args.ArgumentPolicy;
 import org.musiel.args.DefaultAccessor;
+import org.musiel.args.generic.InternationalizedParser;
 import org.musiel.args.operand.OperandPattern;
 
 abstract class MethodHandler {
@@ -35,13 +38,16 @@ abstract class MethodHandler {
 	protected final String defaultValue;
 	protected final String environmentVariableName;
 
-	public MethodHandler( final Method method) {
-		final Decoder< ?> declaredDecoder = MethodHandler.getDeclaredDecoder( method);
-		this.valueConstructor =
-				declaredDecoder == null? MethodHandler.getDefaultConstructor( method): MethodHandler.checkAndReturnConstructor( method,
-						declaredDecoder);
-
-		this.defaultValue = method.isAnnotationPresent( Default.class)? method.getAnnotation( Default.class).value(): null;
+	/**
+	 * Creates a handler from what is declared on a method, either found by reflection, or written down by {@link ModelProcessor}.
+	 * 
+	 * @param valueConstructor
+	 * @param defaultValue
+	 * @param environmentVariableName
+	 */
+	protected MethodHandler( final ValueConstructor valueConstructor, final String defaultValue, final String environmentVariableName) {
+		this.valueConstructor = valueConstructor;
+		this.defaultValue = defaultValue;
 		if( this.defaultValue != null && !"".equals( this.defaultValue))
 			this.valueConstructor.decode( new ExceptionHandler< DecoderException>() {
 
@@ -50,8 +56,94 @@ abstract class MethodHandler {
 					throw new IllegalArgumentException( MethodHandler.this.defaultValue + " is invalid");
 				}
 			}, this.defaultValue, null);
-		this.environmentVariableName =
-				method.isAnnotationPresent( EnvironmentVariable.class)? method.getAnnotation( EnvironmentVariable.class).value(): null;
+		this.environmentVariableName = environmentVariableName;
+	}
+
+	protected static String getDefaultValue( final Method method) {
+		return method.isAnnotationPresent( Default.class)? method.getAnnotation( Default.class).value(): null;
+	}
+
+	protected static String getEnvironmentVariableName( final Method method) {
+		return method.isAnnotationPresent( EnvironmentVariable.class)? method.getAnnotation( EnvironmentVariable.class).value(): null;
+	}
+
+	protected static ValueConstructor getValueConstructor( final Method method) {
+		final Decoder< ?> declaredDecoder = MethodHandler.getDeclaredDecoder( method);
+		if( declaredDecoder == null)
+			return MethodHandler.getValueConstructor( method.getReturnType(), null, null);
+		try {
+			return MethodHandler.getValueConstructor( method.getReturnType(), declaredDecoder,
+					declaredDecoder.getClass().getMethod( "decode", String.class).getReturnType());
+		} catch( final NoSuchMethodException exception) {
+			throw new AssertionError();
+		}
+	}
+
+	/**
+	 * Returns the constructor of values of a method.
+	 * 
+	 * @param methodReturnType
+	 * @param declaredDecoder
+	 *            the decoder declared on the method, or null for the default one of the return type
+	 * @param decoderReturnType
+	 *            return type of the method "decode(String)" of the declared decoder
+	 * @return
+	 * @throws IllegalArgumentException
+	 *             if there is not a default decoder for the return type, or the declared one does not fit it
+	 */
+	static ValueConstructor getValueConstructor( final Class< ?> methodReturnType, final Decoder< ?> declaredDecoder,
+			final Class< ?> decoderReturnType) {
+		return declaredDecoder == null? MethodHandler.getDefaultConstructor( methodReturnType): MethodHandler.checkAndReturnConstructor(
+				methodReturnType, declaredDecoder, decoderReturnType);
+	}
+
+	/**
+	 * Decodes the values of all methods of a model, in the order of their handlers, and returns them. Nothing is decoded if parsing failed
+	 * fast, and decoding stops at the first error if fail-fast.
+	 * 
+	 * @param methodHandlers
+	 * @param undecodedValues
+	 *            values of methods not decoded
+	 * @param basicAccessor
+	 * @param parseTimeExceptions
+	 * @param failFast
+	 * @param decodingExceptions
+	 *            to which decoding errors are added
+	 * @return
+	 */
+	static Object[] decodeAll( final MethodHandler[] methodHandlers, final Object[] undecodedValues, final DefaultAccessor basicAccessor,
+			final Collection< ? extends ArgumentException> parseTimeExceptions, final boolean failFast,
+			final Collection< ArgumentException> decodingExceptions) {
+		final ExceptionHandler< DecoderException> exceptionHandler = new ExceptionHandler< DecoderException>() {
+
+			@ Override
+			public void handle( final DecoderException exception) {
+				decodingExceptions.add( exception);
+			}
+		};
+		final Object[] values = undecodedValues.clone();
+		if( !failFast || parseTimeExceptions.isEmpty())
+			for( int slot = 0; slot < methodHandlers.length; ++slot) {
+				if( failFast && !decodingExceptions.isEmpty())
+					break;
+				values[ slot] = methodHandlers[ slot].decode( basicAccessor, exceptionHandler);
+			}
+		return values;
+	}
+
+	/**
+	 * Returns whether a decoder is declared on a method, by {@link DecoderClass} or an annotation marked by {@link DecoderAnnotation}.
+	 * 
+	 * @param method
+	 * @return
+	 */
+	static boolean hasDeclaredDecoder( final Method method) {
+		if( method.isAnnotationPresent( DecoderClass.class))
+			return true;
+		for( final Annotation annotation: method.getAnnotations())
+			if( annotation.annotationType().isAnnotationPresent( DecoderAnnotation.class))
+				return true;
+		return false;
 	}
 
 	private static Decoder< ?> getDeclaredDecoder( final Method method) {
@@ -89,10 +181,10 @@ abstract class MethodHandler {
 		}
 	}
 
-	private static ValueConstructor getDefaultConstructor( final Method method) {
-		final ValueConstructor defaultDecoder = MethodHandler.DEFAULTS.get( method.getReturnType());
+	private static ValueConstructor getDefaultConstructor( final Class< ?> methodReturnType) {
+		final ValueConstructor defaultDecoder = MethodHandler.DEFAULTS.get( methodReturnType);
 		if( defaultDecoder == null)
-			throw new IllegalArgumentException( "there is not a default decoder for return type " + method.getReturnType()
+			throw new IllegalArgumentException( "there is not a default decoder for return type " + methodReturnType
 					+ ", please specify a decoder annotation");
 		return defaultDecoder;
 	}
@@ -129,10 +221,10 @@ abstract class MethodHandler {
 		MethodHandler.DEFAULTS.put( boolean[].class, new ArrayConstructor( new BooleanValue.Decoder(), boolean.class, false));
 		MethodHandler.DEFAULTS.put( byte[].class, new ArrayConstructor( new ByteValue.Decoder(), byte.class, ( byte) 0));
 		MethodHandler.DEFAULTS.put( short[].class, new ArrayConstructor( new ShortValue.Decoder(), short.class, ( short) 0));
-		MethodHandler.DEFAULTS.put( int[].class, new ArrayConstructor( new IntegerValue.Decoder(), int.class, 0));
-		MethodHandler.DEFAULTS.put( long[].class, new ArrayConstructor( new LongValue.Decoder(), long.class, 0L));
+		MethodHandler.DEFAULTS.put( int[].class, new ValueConstructor.IntArrayConstructor( new IntegerValue.Decoder()));
+		MethodHandler.DEFAULTS.put( long[].class, new ValueConstructor.LongArrayConstructor( new LongValue.Decoder()));
 		MethodHandler.DEFAULTS.put( float[].class, new ArrayConstructor( new FloatValue.Decoder(), float.class, 0.0F));
-		MethodHandler.DEFAULTS.put( double[].class, new ArrayConstructor( new DoubleValue.Decoder(), double.class, 0.0D));
+		MethodHandler.DEFAULTS.put( double[].class, new ValueConstructor.DoubleArrayConstructor( new DoubleValue.Decoder()));
 		MethodHandler.DEFAULTS.put( char[].class, new ArrayConstructor( new CharacterValue.Decoder(), char.class, ( char) 0));
 
 		MethodHandler.DEFAULTS.put( Void[].class, new ArrayConstructor( null, Void.class, null));
@@ -152,15 +244,8 @@ abstract class MethodHandler {
 		MethodHandler.DEFAULTS.put( URL[].class, new ArrayConstructor( new UrlValue.Decoder(), URL.class, null));
 	}
 
-	private static ValueConstructor checkAndReturnConstructor( final Method method, final Decoder< ?> declaredDecoder) {
-		final Class< ?> methodReturnType = method.getReturnType();
-		Class< ?> decoderReturnType;
-		try {
-			decoderReturnType = declaredDecoder.getClass().getMethod( "decode", String.class).getReturnType();
-		} catch( final NoSuchMethodException exception) {
-			throw new AssertionError();
-		}
-
+	private static ValueConstructor checkAndReturnConstructor( final Class< ?> methodReturnType, final Decoder< ?> declaredDecoder,
+			final Class< ?> decoderReturnType) {
 		if( void.class.equals( methodReturnType) || Void.class.equals( methodReturnType))
 			return MethodHandler.DEFAULTS.get( methodReturnType);
 		if( methodReturnType.isAssignableFrom( decoderReturnType))
@@ -183,6 +268,12 @@ abstract class MethodHandler {
 		if( !PrimitiveType.forPrimitiveType( componentType).getWrapperType().isAssignableFrom( decoderReturnType))
 			throw new IllegalArgumentException( "decoder of type " + decoderReturnType + " cannot be applied to method with return type "
 					+ methodReturnType);
+		if( int.class.equals( componentType) && declaredDecoder instanceof IntDecoder)
+			return new ValueConstructor.IntArrayConstructor( ( IntDecoder) declaredDecoder);
+		if( long.class.equals( componentType) && declaredDecoder instanceof LongDecoder)
+			return new ValueConstructor.LongArrayConstructor( ( LongDecoder) declaredDecoder);
+		if( double.class.equals( componentType) && declaredDecoder instanceof DoubleDecoder)
+			return new ValueConstructor.DoubleArrayConstructor( ( DoubleDecoder) declaredDecoder);
 		return new ArrayConstructor( declaredDecoder, componentType, PrimitiveType.forPrimitiveType( componentType).getDefaultValue());
 	}
 
@@ -192,47 +283,84 @@ abstract class MethodHandler {
 class OptionHandler extends MethodHandler {
 
 	private final String optionName;
+	private final String[] additionalNames;
+	private final boolean required;
+	private final boolean repeatable;
+	private final ArgumentPolicy argument;
+	private final String description;
+	private final String argumentName;
+
+	public OptionHandler( final Method method) {
+		this( MethodHandler.getValueConstructor( method), MethodHandler.getDefaultValue( method), MethodHandler
+				.getEnvironmentVariableName( method),
+				method.isAnnotationPresent( Required.class)? method.getAnnotation( Required.class).value(): null,
+				method.isAnnotationPresent( Repeatable.class)? method.getAnnotation( Repeatable.class).value(): null,
+				method.isAnnotationPresent( Argument.class)? method.getAnnotation( Argument.class).value(): null,
+				method.isAnnotationPresent( Description.class)? method.getAnnotation( Description.class).value(): null,
+				method.isAnnotationPresent( ArgumentName.class)? method.getAnnotation( ArgumentName.class).value(): null,
+				OptionHandler.getNames( method));
+	}
 
-	public OptionHandler( final Method method, final ReflectParser< ?> parser) {
-		super( method);
+	/**
+	 * Creates a handler from the annotations of a method, where an absent annotation is represented by null, and the names are those of
+	 * the {@link Option} annotation, or the one constructed from the method name.
+	 */
+	OptionHandler( final ValueConstructor valueConstructor, final String defaultValue, final String environmentVariableName,
+			final Boolean required, final Boolean repeatable, final ArgumentPolicy argument, final String description,
+			final String argumentName, final String... names) {
+		super( valueConstructor, defaultValue, environmentVariableName);
 
 		// names
-		String[] additionalNames;
-		final Option option = method.getAnnotation( Option.class);
-		if( option != null && option.value().length > 0) {
-			this.optionName = option.value()[ 0];
-			additionalNames = option.value(); // duplicates are okay
-		} else {
-			this.optionName = OptionHandler.constructName( method.getName());
-			additionalNames = new String[]{};
-		}
+		this.optionName = names[ 0];
+		this.additionalNames = names; // duplicates are okay
 
 		// properties
-		final boolean required = method.isAnnotationPresent( Required.class)? method.getAnnotation( Required.class).value(): false;
-		final boolean repeatable =
-				method.isAnnotationPresent( Repeatable.class)? method.getAnnotation( Repeatable.class).value(): this.valueConstructor
-						.expectsMany();
-		final ArgumentPolicy argument =
-				method.isAnnotationPresent( Argument.class)? method.getAnnotation( Argument.class).value(): this.valueConstructor
-						.dependsOnContent()? ArgumentPolicy.REQUIRED: ArgumentPolicy.NONE;
+		this.required = required != null? required.booleanValue(): false;
+		this.repeatable = repeatable != null? repeatable.booleanValue(): this.valueConstructor.expectsMany();
+		this.argument =
+				argument != null? argument: this.valueConstructor.dependsOnContent()? ArgumentPolicy.REQUIRED: ArgumentPolicy.NONE;
 
 		// i18n
-		final String description = method.isAnnotationPresent( Description.class)? method.getAnnotation( Description.class).value(): null;
-		final String argumentName =
-				method.isAnnotationPresent( ArgumentName.class)? method.getAnnotation( ArgumentName.class).value(): null;
-
-		// register
-		parser.newOption( required, repeatable, argument, this.optionName, additionalNames);
-		if( description != null)
-			parser.setOptionDescription( this.optionName, description);
-		if( argumentName != null)
-			parser.setArgumentName( this.optionName, argumentName);
+		this.description = description;
+		this.argumentName = argumentName;
+	}
+
+	private static String[] getNames( final Method method) {
+		final Option option = method.getAnnotation( Option.class);
+		return option != null && option.value().length > 0? option.value(): new String[]{ OptionHandler.constructName( method.getName())};
+	}
+
+	/**
+	 * Defines the option in a parser, the handler itself is shared by all parsers of the same model.
+	 * 
+	 * @param parser
+	 */
+	public void register( final ReflectParser< ?> parser) {
+		parser.newOption( this.required, this.repeatable, this.argument, this.optionName, this.additionalNames);
+		this.describe( parser);
+	}
+
+	/**
+	 * Defines the option in a generated parser.
+	 * 
+	 * @param parser
+	 */
+	public void register( final GeneratedParser< ?> parser) {
+		parser.newOption( this.required, this.repeatable, this.argument, this.optionName, this.additionalNames);
+		this.describe( parser);
+	}
+
+	private void describe( final InternationalizedParser< ?> parser) {
+		if( this.description != null)
+			parser.setOptionDescription( this.optionName, this.description);
+		if( this.argumentName != null)
+			parser.setArgumentName( this.optionName, this.argumentName);
 	}
 
 	private final static Pattern SHORT_NAME_APPLICABLE = Pattern.compile( "^[a-zA-Z0-9]$");
 	private final static Pattern LONG_NAME_APPLICABLE = Pattern.compile( "^[a-zA-Z0-9]{2,}$");
 
-	private static String constructName( final String methodName) {
+	static String constructName( final String methodName) {
 		if( OptionHandler.SHORT_NAME_APPLICABLE.matcher( methodName).find())
 			return "-" + methodName;
 		if( OptionHandler.LONG_NAME_APPLICABLE.matcher( methodName).find()) {
@@ -250,6 +378,8 @@ class OptionHandler extends MethodHandler {
 
 	@ Override
 	public Object decode( final DefaultAccessor basicAccessor, final ExceptionHandler< DecoderException> exceptionHandler) {
+		if( !this.valueConstructor.dependsOnContent())
+			return this.valueConstructor.decode( basicAccessor.getOccurrences( this.optionName));
 		return this.valueConstructor.decode( new ExceptionHandler< DecoderException>() {
 
 			@ Override
@@ -266,13 +396,18 @@ class OperandHandler extends MethodHandler {
 	private final String operandName;
 
 	public OperandHandler( final Method method, final OperandPattern operandPattern) {
-		super( method);
+		this( MethodHandler.getValueConstructor( method), MethodHandler.getDefaultValue( method), MethodHandler
+				.getEnvironmentVariableName( method), method.getAnnotation( Operands.class).value(), operandPattern);
 
 		// check illegal annotations
 		for( final Class< ? extends Annotation> conflictingAnnotations: OperandHandler.CONFLICT_WITH_OPERANDS)
 			if( method.isAnnotationPresent( conflictingAnnotations))
 				throw new IllegalArgumentException( "operand method cannot be annotated @" + conflictingAnnotations.getSimpleName());
-		final String operandName = method.getAnnotation( Operands.class).value();
+	}
+
+	OperandHandler( final ValueConstructor valueConstructor, final String defaultValue, final String environmentVariableName,
+			final String operandName, final OperandPattern operandPattern) {
+		super( valueConstructor, defaultValue, environmentVariableName);
 
 		// check and set operand name
 		if( "".equals( operandName))
@@ -283,7 +418,7 @@ class OperandHandler extends MethodHandler {
 			this.operandName = operandName;
 	}
 
-	private static final Set< Class< ? extends Annotation>> CONFLICT_WITH_OPERANDS = new HashSet<>();
+	static final Set< Class< ? extends Annotation>> CONFLICT_WITH_OPERANDS = new HashSet<>();
 	static {
 		OperandHandler.CONFLICT_WITH_OPERANDS.add( Argument.class);
 		OperandHandler.CONFLICT_WITH_OPERANDS.add( ArgumentName.class);
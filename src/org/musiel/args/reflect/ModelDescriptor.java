@@ -0,0 +1,105 @@
+/*
+ * Copyright 2014 Bagana <bagana@musiel.org>
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License. You 
+ * may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS, 
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing 
+ * permissions and limitations under the License.
+ */
+package org.musiel.args.reflect;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.musiel.args.DefaultAccessor;
+
+/**
+ * What is found out about a model interface by reflection: its methods, and a handler for each method using default decoders, with
+ * default values checked. Immutable, and computed only once per interface, see {@link #forModel(Class)}. Handlers of methods with a
+ * declared decoder are created for each parser by {@link #newMethodHandlers()}, as the decoders are not required to be thread-safe.
+ * 
+ * @author Bagana
+ */
+final class ModelDescriptor {
+
+	// kept with each model class itself, rather than in a map held by this class, so that a class loader is never kept alive by the cache
+	private static final ClassValue< ModelDescriptor> DESCRIPTORS = new ClassValue< ModelDescriptor>() {
+
+		@ Override
+		protected ModelDescriptor computeValue( final Class< ?> model) {
+			return new ModelDescriptor( model);
+		}
+	};
+
+	/**
+	 * Returns the descriptor of a model interface, describing it on the first call.
+	 * 
+	 * @param model
+	 * @return
+	 * @throws IllegalArgumentException
+	 *             if the interface is not a valid model
+	 */
+	static ModelDescriptor forModel( final Class< ?> model) {
+		if( !model.isInterface())
+			throw new IllegalArgumentException( model.getName() + " is not an interface");
+		return ModelDescriptor.DESCRIPTORS.get( model);
+	}
+
+	final org.musiel.args.operand.OperandPattern operandPattern;
+	// model methods other than those of DefaultAccessor, the index of each is where its value is kept in a result
+	private final Method[] methods;
+	// by slot, null for a method with a declared decoder
+	private final MethodHandler[] sharedHandlers;
+	final Map< Method, Integer> slots = new HashMap<>();
+	// values of methods not decoded, as parsing failed fast
+	final Object[] undecodedValues;
+
+	private ModelDescriptor( final Class< ?> model) {
+		this.operandPattern =
+				model.isAnnotationPresent( OperandPattern.class)? org.musiel.args.operand.OperandPattern.compile( model.getAnnotation(
+						OperandPattern.class).value()): null;
+
+		final List< Method> methods = new ArrayList<>();
+		for( final Method method: model.getMethods())
+			if( !DefaultAccessor.class.equals( method.getDeclaringClass()))
+				methods.add( method);
+		this.methods = methods.toArray( new Method[ methods.size()]);
+		this.sharedHandlers = new MethodHandler[ methods.size()];
+		this.undecodedValues = new Object[ methods.size()];
+		for( int slot = 0; slot < methods.size(); ++slot) {
+			final Method method = methods.get( slot);
+			if( !MethodHandler.hasDeclaredDecoder( method))
+				this.sharedHandlers[ slot] = this.newMethodHandler( method);
+			this.slots.put( method, Integer.valueOf( slot));
+			if( method.getReturnType().isPrimitive())
+				this.undecodedValues[ slot] = PrimitiveType.forPrimitiveType( method.getReturnType()).getDefaultValue();
+		}
+	}
+
+	private MethodHandler newMethodHandler( final Method method) {
+		return method.isAnnotationPresent( Operands.class)? new OperandHandler( method, this.operandPattern): new OptionHandler( method);
+	}
+
+	/**
+	 * Returns a handler for each method, by slot, for a new parser. Handlers using default decoders are shared, while those of methods with
+	 * a declared decoder are created, with the decoder instantiated, on each call.
+	 * 
+	 * @return
+	 * @throws IllegalArgumentException
+	 *             if a declared decoder cannot be instantiated, or does not fit its method
+	 */
+	MethodHandler[] newMethodHandlers() {
+		final MethodHandler[] methodHandlers = this.sharedHandlers.clone();
+		for( int slot = 0; slot < methodHandlers.length; ++slot)
+			if( methodHandlers[ slot] == null)
+				methodHandlers[ slot] = this.newMethodHandler( this.methods[ slot]);
+		return methodHandlers;
+	}
+}
@@ -0,0 +1,444 @@
+/*
+ * Copyright 2014 Bagana <bagana@musiel.org>
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License. You 
+ * may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS, 
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing 
+ * permissions and limitations under the License.
+ */
+package org.musiel.args.reflect;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.lang.annotation.Annotation;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map.Entry;
+import java.util.Set;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.ExecutableType;
+import javax.lang.model.type.PrimitiveType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic.Kind;
+
+import org.musiel.args.ArgumentPolicy;
+import org.musiel.args.DefaultAccessor;
+
+/**
+ * Generates a parser, extending {@link GeneratedParser}, for each model interface annotated {@link GenerateParser}. The annotations of the
+ * interface and its methods are read at compile time, and written down in the generated code, which then needs neither reflection nor
+ * proxies at run time. Registered as a service, so that it runs whenever this library is on the class path of a compiler.
+ * 
+ * <p>
+ * Errors in a model that can be found at compile time are reported by the compiler, the rest are thrown by the constructor of the generated
+ * parser, the same way as by {@link ReflectParser}.
+ * </p>
+ * 
+ * @author Bagana
+ */
+@ SupportedAnnotationTypes( "org.musiel.args.reflect.GenerateParser")
+public class ModelProcessor extends AbstractProcessor {
+
+	@ Override
+	public SourceVersion getSupportedSourceVersion() {
+		return SourceVersion.latestSupported();
+	}
+
+	@ Override
+	public boolean process( final Set< ? extends TypeElement> annotations, final RoundEnvironment roundEnvironment) {
+		for( final Element element: roundEnvironment.getElementsAnnotatedWith( GenerateParser.class))
+			try {
+				if( element.getKind() != ElementKind.INTERFACE)
+					throw new IllegalArgumentException( element + " is not an interface");
+				this.generate( ( TypeElement) element);
+			} catch( final IllegalArgumentException exception) {
+				this.processingEnv.getMessager().printMessage( Kind.ERROR, exception.getMessage(), element);
+			} catch( final IOException exception) {
+				this.processingEnv.getMessager().printMessage( Kind.ERROR, "cannot write parser: " + exception.getMessage(), element);
+			}
+		return true;
+	}
+
+	private void generate( final TypeElement model) throws IOException {
+		for( Element enclosing = model; enclosing.getKind() != ElementKind.PACKAGE; enclosing = enclosing.getEnclosingElement())
+			if( enclosing.getModifiers().contains( Modifier.PRIVATE))
+				throw new IllegalArgumentException( model + " is not accessible from its package");
+		if( !model.getTypeParameters().isEmpty())
+			throw new IllegalArgumentException( model + " is generic");
+
+		final String packageName = this.processingEnv.getElementUtils().getPackageOf( model).getQualifiedName().toString();
+		String parserName = model.getSimpleName() + "Parser";
+		for( Element enclosing = model.getEnclosingElement(); enclosing.getKind() != ElementKind.PACKAGE; enclosing =
+				enclosing.getEnclosingElement())
+			parserName = enclosing.getSimpleName() + "_" + parserName;
+		final String modelName = model.getQualifiedName().toString();
+
+		final StringBuilder source = new StringBuilder();
+		if( !packageName.isEmpty())
+			source.append( "package ").append( packageName).append( ";\n\n");
+		source.append( "/**\n * Parser of {@link ").append( modelName).append( "}, generated by {@link ")
+				.append( ModelProcessor.class.getName()).append( "}.\n */\n");
+		source.append( "public class ").append( parserName).append( " extends ").append( GeneratedParser.class.getName()).append( "< ")
+				.append( modelName).append( "> {\n\n");
+		source.append( "\tpublic ").append( parserName).append( "() {\n");
+		source.append( "\t\tthis( new org.musiel.args.syntax.GnuSyntax());\n");
+		source.append( "\t}\n\n");
+
+		// the model
+		source.append( "\tpublic ").append( parserName).append( "( final org.musiel.args.syntax.Syntax syntax) {\n");
+		final OperandPattern operandPattern = model.getAnnotation( OperandPattern.class);
+		final org.musiel.args.operand.OperandPattern compiledPattern =
+				operandPattern == null? null: org.musiel.args.operand.OperandPattern.compile( operandPattern.value());
+		source.append( "\t\tsuper( syntax, ").append( ModelProcessor.quote( operandPattern == null? null: operandPattern.value()))
+				.append( ");\n");
+		if( operandPattern != null)
+			for( final OperandDescription description: operandPattern.descriptions())
+				source.append( "\t\tthis.setOperandDescription( ").append( ModelProcessor.quote( description.name())).append( ", ")
+						.append( ModelProcessor.quote( description.description())).append( ");\n");
+		if( model.getAnnotation( Resource.class) != null)
+			source.append( "\t\tthis.setBundleBase( ").append( ModelProcessor.quote( model.getAnnotation( Resource.class).value()))
+					.append( ");\n");
+		if( model.getAnnotation( Description.class) != null)
+			source.append( "\t\tthis.setDescription( ").append( ModelProcessor.quote( model.getAnnotation( Description.class).value()))
+					.append( ");\n");
+
+		// the methods
+		final TypeElement defaultAccessor =
+				this.processingEnv.getElementUtils().getTypeElement( DefaultAccessor.class.getCanonicalName());
+		final List< ExecutableElement> methods = new ArrayList<>();
+		for( final ExecutableElement method: ElementFilter.methodsIn( this.processingEnv.getElementUtils().getAllMembers( model)))
+			if( method.getModifiers().contains( Modifier.ABSTRACT) && !defaultAccessor.equals( method.getEnclosingElement()))
+				methods.add( method);
+		final StringBuilder decoders = new StringBuilder();
+		for( int slot = 0; slot < methods.size(); ++slot)
+			this.appendMethodHandler( source, decoders, parserName, slot, methods.get( slot), compiledPattern);
+		source.append( "\t}\n");
+		source.append( decoders);
+
+		// the implementation
+		source.append( "\n\t@ Override\n");
+		source.append( "\tprotected ").append( modelName).append( " newModel( final java.lang.Object[] values, final ")
+				.append( DefaultAccessor.class.getName()).append( " basicAccessor) {\n");
+		source.append( "\t\treturn new ").append( parserName).append( ".Instance( values, basicAccessor);\n");
+		source.append( "\t}\n\n");
+		source.append( "\tprivate static final class Instance implements ").append( modelName).append( " {\n\n");
+		// a field per value, typed as the method returns it, so that values are cast and unboxed once
+		final StringBuilder fields = new StringBuilder();
+		final StringBuilder assignments = new StringBuilder();
+		final StringBuilder accessors = new StringBuilder();
+		boolean uncheckedAssignment = false;
+		final Set< String> implemented = new HashSet<>();
+		for( int slot = 0; slot < methods.size(); ++slot) {
+			final ExecutableElement method = methods.get( slot);
+			final TypeMirror returnType = this.getType( model, method).getReturnType();
+			accessors.append( "\n\t\t@ Override\n");
+			if( returnType.getKind() == TypeKind.TYPEVAR)
+				accessors.append( "\t\t@ SuppressWarnings( \"unchecked\")\n");
+			accessors.append( "\t\t").append( this.getSignature( model, method, implemented)).append( " {\n");
+			if( returnType.getKind() == TypeKind.VOID) {
+				accessors.append( "\t\t\t// nothing to return\n\t\t}\n");
+				continue;
+			}
+
+			// a type variable of the method itself is erased in the field, and cast back on each call
+			final TypeMirror fieldType =
+					returnType.getKind() == TypeKind.TYPEVAR? this.processingEnv.getTypeUtils().erasure( returnType): returnType;
+			fields.append( "\t\tprivate final ").append( fieldType).append( " value").append( slot).append( ";\n");
+			assignments.append( "\t\t\tthis.value").append( slot).append( " = ( ")
+					.append( fieldType.getKind().isPrimitive()? this.processingEnv.getTypeUtils()
+							.boxedClass( ( PrimitiveType) fieldType).getQualifiedName(): fieldType).append( ") values[ ")
+					.append( slot).append( "];\n");
+			if( !this.processingEnv.getTypeUtils().isSameType( fieldType, this.processingEnv.getTypeUtils().erasure( fieldType)))
+				uncheckedAssignment = true;
+			accessors.append( "\t\t\treturn ")
+					.append( returnType.getKind() == TypeKind.TYPEVAR? "( " + returnType + ") ": "").append( "this.value")
+					.append( slot).append( ";\n\t\t}\n");
+		}
+		source.append( fields);
+		source.append( "\t\tprivate final ").append( DefaultAccessor.class.getName()).append( " basicAccessor;\n\n");
+		if( uncheckedAssignment)
+			source.append( "\t\t@ SuppressWarnings( \"unchecked\")\n");
+		source.append( "\t\tInstance( final java.lang.Object[] values, final ").append( DefaultAccessor.class.getName())
+				.append( " basicAccessor) {\n");
+		source.append( assignments);
+		source.append( "\t\t\tthis.basicAccessor = basicAccessor;\n");
+		source.append( "\t\t}\n");
+		source.append( accessors);
+		if( this.processingEnv.getTypeUtils().isAssignable( model.asType(), defaultAccessor.asType()))
+			for( final ExecutableElement method: ElementFilter.methodsIn( defaultAccessor.getEnclosedElements())) {
+				final StringBuilder arguments = new StringBuilder();
+				for( int index = 0; index < method.getParameters().size(); ++index)
+					arguments.append( index == 0? " ": ", ").append( "arg").append( index);
+				final String signature = this.getSignature( model, method, implemented);
+				if( signature != null)
+					source.append( "\n\t\t@ Override\n\t\t").append( signature).append( " {\n\t\t\treturn this.basicAccessor.")
+							.append( method.getSimpleName()).append( "(").append( arguments).append( ");\n\t\t}\n");
+			}
+		source.append( "\t}\n}\n");
+
+		final Writer writer =
+				this.processingEnv.getFiler().createSourceFile( packageName.isEmpty()? parserName: packageName + "." + parserName, model)
+						.openWriter();
+		try {
+			writer.write( source.toString());
+		} finally {
+			writer.close();
+		}
+	}
+
+	private void appendMethodHandler( final StringBuilder source, final StringBuilder decoders, final String parserName, final int slot,
+			final ExecutableElement method, final org.musiel.args.operand.OperandPattern operandPattern) {
+		final TypeMirror returnType = method.getReturnType();
+		final String decoder = this.appendDecoder( decoders, slot, method);
+		source.append( "\t\tthis.").append( method.getAnnotation( Operands.class) != null? "addOperands": "addOption").append( "( ")
+				.append( returnType.getKind() == TypeKind.VOID? "void": this.processingEnv.getTypeUtils().erasure( returnType))
+				.append( ".class, ").append( decoder == null? "null, null": parserName + ".decoder" + slot + "(), " + decoder + ".class")
+				.append( ", ");
+		final Default defaultValue = method.getAnnotation( Default.class);
+		final EnvironmentVariable environmentVariable = method.getAnnotation( EnvironmentVariable.class);
+		source.append( ModelProcessor.quote( defaultValue == null? null: defaultValue.value())).append( ", ")
+				.append( ModelProcessor.quote( environmentVariable == null? null: environmentVariable.value())).append( ", ");
+
+		final Operands operands = method.getAnnotation( Operands.class);
+		if( operands != null) {
+			for( final Class< ? extends Annotation> conflictingAnnotation: OperandHandler.CONFLICT_WITH_OPERANDS)
+				if( method.getAnnotation( conflictingAnnotation) != null)
+					throw new IllegalArgumentException( "operand method cannot be annotated @" + conflictingAnnotation.getSimpleName());
+			if( !"".equals( operands.value()) && ( operandPattern == null || !operandPattern.getNames().contains( operands.value())))
+				throw new IllegalArgumentException( "operand name \"" + operands.value() + "\" does not exist in the operand pattern");
+			source.append( ModelProcessor.quote( operands.value())).append( ");\n");
+			return;
+		}
+
+		final Required required = method.getAnnotation( Required.class);
+		final Repeatable repeatable = method.getAnnotation( Repeatable.class);
+		final Argument argument = method.getAnnotation( Argument.class);
+		final Description description = method.getAnnotation( Description.class);
+		final ArgumentName argumentName = method.getAnnotation( ArgumentName.class);
+		source.append( required == null? "null": required.value()? "java.lang.Boolean.TRUE": "java.lang.Boolean.FALSE").append( ", ")
+				.append( repeatable == null? "null": repeatable.value()? "java.lang.Boolean.TRUE": "java.lang.Boolean.FALSE").append( ", ")
+				.append( argument == null? "null": ArgumentPolicy.class.getName() + "." + argument.value().name()).append( ", ")
+				.append( ModelProcessor.quote( description == null? null: description.value())).append( ", ")
+				.append( ModelProcessor.quote( argumentName == null? null: argumentName.value()));
+		final Option option = method.getAnnotation( Option.class);
+		if( option != null && option.value().length > 0)
+			for( final String name: option.value())
+				source.append( ", ").append( ModelProcessor.quote( name));
+		else
+			source.append( ", ").append( ModelProcessor.quote( OptionHandler.constructName( method.getSimpleName().toString())));
+		source.append( ");\n");
+	}
+
+	/**
+	 * Appends a method creating the decoder declared on a method, and returns the return type of its method "decode(String)", or returns
+	 * null if no decoder is declared.
+	 */
+	private String appendDecoder( final StringBuilder decoders, final int slot, final ExecutableElement method) {
+		AnnotationMirror decoderAnnotation = null;
+		TypeMirror decoderClass = null;
+		for( final AnnotationMirror annotation: method.getAnnotationMirrors()) {
+			final AnnotationMirror declaration =
+					this.getAnnotationMirror( annotation.getAnnotationType().asElement(), DecoderAnnotation.class);
+			if( declaration != null)
+				if( decoderAnnotation != null)
+					throw new IllegalArgumentException( "more than one decoder annotations found: " + decoderAnnotation + ", "
+							+ annotation);
+				else {
+					decoderAnnotation = annotation;
+					decoderClass = ( TypeMirror) this.getValue( declaration).getValue();
+				}
+		}
+		final AnnotationMirror declaredClass = this.getAnnotationMirror( method, DecoderClass.class);
+		if( declaredClass != null)
+			if( decoderAnnotation != null)
+				throw new IllegalArgumentException( "more than one decoder annotations found: " + decoderAnnotation + ", " + declaredClass);
+			else
+				decoderClass = ( TypeMirror) this.getValue( declaredClass).getValue();
+		if( decoderClass == null)
+			return null;
+
+		final TypeElement decoderType = ( TypeElement) this.processingEnv.getTypeUtils().asElement( decoderClass);
+		boolean annotationConstructor = false;
+		boolean defaultConstructor = false;
+		for( final ExecutableElement constructor: ElementFilter.constructorsIn( decoderType.getEnclosedElements()))
+			if( constructor.getModifiers().contains( Modifier.PUBLIC))
+				if( constructor.getParameters().isEmpty())
+					defaultConstructor = true;
+				else if( decoderAnnotation != null
+						&& constructor.getParameters().size() == 1
+						&& this.processingEnv.getTypeUtils().isSameType( constructor.getParameters().get( 0).asType(),
+								decoderAnnotation.getAnnotationType()))
+					annotationConstructor = true;
+		if( !annotationConstructor && !defaultConstructor)
+			throw new IllegalArgumentException( "constructor not found: "
+					+ this.processingEnv.getElementUtils().getBinaryName( decoderType));
+
+		final String decoderName = this.processingEnv.getTypeUtils().erasure( decoderClass).toString();
+		decoders.append( "\n\tprivate static ").append( Decoder.class.getName()).append( "< ?> decoder").append( slot).append( "() {\n");
+		decoders.append( "\t\treturn new ").append( decoderName).append( "(");
+		if( annotationConstructor)
+			this.appendAnnotation( decoders.append( " "), decoderAnnotation, "\t\t");
+		decoders.append( ");\n\t}\n");
+
+		// the class, not the interfaces, declaring the method, as found by reflection
+		for( TypeElement type = decoderType; type != null; type =
+				( TypeElement) this.processingEnv.getTypeUtils().asElement( type.getSuperclass()))
+			for( final ExecutableElement decode: ElementFilter.methodsIn( type.getEnclosedElements()))
+				if( decode.getSimpleName().contentEquals( "decode") && decode.getParameters().size() == 1
+						&& decode.getParameters().get( 0).asType().toString().equals( String.class.getName()))
+					return this.processingEnv.getTypeUtils().erasure( decode.getReturnType()).toString();
+		return Object.class.getName();
+	}
+
+	// an anonymous class implementing the annotation, for decoders constructed with one
+	private void appendAnnotation( final StringBuilder source, final AnnotationMirror annotation, final String indent) {
+		final String annotationName = annotation.getAnnotationType().toString();
+		source.append( "new ").append( annotationName).append( "() {\n\n");
+		source.append( indent).append( "\t@ Override\n");
+		source.append( indent).append( "\tpublic java.lang.Class< ? extends java.lang.annotation.Annotation> annotationType() {\n");
+		source.append( indent).append( "\t\treturn ").append( annotationName).append( ".class;\n");
+		source.append( indent).append( "\t}\n");
+		for( final Entry< ? extends ExecutableElement, ? extends AnnotationValue> entry: this.processingEnv.getElementUtils()
+				.getElementValuesWithDefaults( annotation).entrySet()) {
+			source.append( "\n").append( indent).append( "\t@ Override\n");
+			source.append( indent).append( "\tpublic ").append( entry.getKey().getReturnType()).append( " ")
+					.append( entry.getKey().getSimpleName()).append( "() {\n");
+			source.append( indent).append( "\t\treturn ").append( this.toLiteral( entry.getValue(), entry.getKey().getReturnType()))
+					.append( ";\n");
+			source.append( indent).append( "\t}\n");
+		}
+		source.append( indent).append( "}");
+	}
+
+	private String toLiteral( final AnnotationValue annotationValue, final TypeMirror type) {
+		final Object value = annotationValue.getValue();
+		if( value instanceof String)
+			return ModelProcessor.quote( ( String) value);
+		if( value instanceof Character)
+			return "'" + ModelProcessor.escape( String.valueOf( value), '\'') + "'";
+		if( value instanceof Boolean || value instanceof Integer)
+			return String.valueOf( value);
+		if( value instanceof Byte)
+			return "( byte) " + value;
+		if( value instanceof Short)
+			return "( short) " + value;
+		if( value instanceof Long)
+			return value + "L";
+		if( value instanceof Float) {
+			final float f = ( Float) value;
+			return Float.isNaN( f)? "java.lang.Float.NaN": Float.isInfinite( f)? f > 0? "java.lang.Float.POSITIVE_INFINITY"
+					: "java.lang.Float.NEGATIVE_INFINITY": f + "F";
+		}
+		if( value instanceof Double) {
+			final double d = ( Double) value;
+			return Double.isNaN( d)? "java.lang.Double.NaN": Double.isInfinite( d)? d > 0? "java.lang.Double.POSITIVE_INFINITY"
+					: "java.lang.Double.NEGATIVE_INFINITY": d + "D";
+		}
+		if( value instanceof TypeMirror)
+			return this.processingEnv.getTypeUtils().erasure( ( TypeMirror) value) + ".class";
+		if( value instanceof VariableElement)
+			return this.processingEnv.getTypeUtils().erasure( ( ( VariableElement) value).asType()) + "."
+					+ ( ( VariableElement) value).getSimpleName();
+		if( value instanceof List) {
+			// the only kind of list an annotation value may be
+			@ SuppressWarnings( "unchecked")
+			final List< ? extends AnnotationValue> values = ( List< ? extends AnnotationValue>) value;
+			final TypeMirror componentType = ( ( ArrayType) type).getComponentType();
+			final StringBuilder builder =
+					new StringBuilder( "new ").append( this.processingEnv.getTypeUtils().erasure( componentType)).append( "[]{");
+			for( int index = 0; index < values.size(); ++index)
+				builder.append( index == 0? " ": ", ").append( this.toLiteral( values.get( index), componentType));
+			return builder.append( "}").toString();
+		}
+		throw new IllegalArgumentException( "annotation value not supported: " + value);
+	}
+
+	private ExecutableType getType( final TypeElement model, final ExecutableElement method) {
+		return ( ExecutableType) this.processingEnv.getTypeUtils().asMemberOf( ( DeclaredType) model.asType(), method);
+	}
+
+	/**
+	 * Returns the signature of an implementation of a method, or null if one with the same name and parameter types is already implemented.
+	 */
+	private String getSignature( final TypeElement model, final ExecutableElement method, final Set< String> implemented) {
+		final ExecutableType type = this.getType( model, method);
+		final StringBuilder key = new StringBuilder( method.getSimpleName());
+		for( final TypeMirror parameterType: type.getParameterTypes())
+			key.append( ',').append( this.processingEnv.getTypeUtils().erasure( parameterType));
+		if( !implemented.add( key.toString()))
+			return null;
+
+		final StringBuilder signature = new StringBuilder( "public ");
+		if( !type.getTypeVariables().isEmpty()) {
+			signature.append( "<");
+			for( int index = 0; index < method.getTypeParameters().size(); ++index) {
+				signature.append( index == 0? " ": ", ").append( method.getTypeParameters().get( index));
+				final List< ? extends TypeMirror> bounds = method.getTypeParameters().get( index).getBounds();
+				for( int bound = 0; bound < bounds.size(); ++bound)
+					signature.append( bound == 0? " extends ": " & ").append( bounds.get( bound));
+			}
+			signature.append( ">");
+		}
+		signature.append( type.getReturnType()).append( " ").append( method.getSimpleName()).append( "(");
+		for( int index = 0; index < type.getParameterTypes().size(); ++index)
+			signature.append( index == 0? " ": ", ").append( "final ").append( type.getParameterTypes().get( index)).append( " arg")
+					.append( index);
+		signature.append( ")");
+		for( int index = 0; index < type.getThrownTypes().size(); ++index)
+			signature.append( index == 0? " throws ": ", ").append( type.getThrownTypes().get( index));
+		return signature.toString();
+	}
+
+	private AnnotationMirror getAnnotationMirror( final Element element, final Class< ? extends Annotation> annotationType) {
+		for( final AnnotationMirror annotation: element.getAnnotationMirrors())
+			if( annotation.getAnnotationType().toString().equals( annotationType.getCanonicalName()))
+				return annotation;
+		return null;
+	}
+
+	private AnnotationValue getValue( final AnnotationMirror annotation) {
+		for( final Entry< ? extends ExecutableElement, ? extends AnnotationValue> entry: annotation.getElementValues().entrySet())
+			if( entry.getKey().getSimpleName().contentEquals( "value"))
+				return entry.getValue();
+		throw new AssertionError();
+	}
+
+	private static String quote( final String string) {
+		return string == null? "null": "\"" + ModelProcessor.escape( string, '"') + "\"";
+	}
+
+	private static String escape( final String string, final char quotation) {
+		final StringBuilder builder = new StringBuilder();
+		for( final char c: string.toCharArray())
+			if( c == quotation || c == '\\')
+				builder.append( '\\').append( c);
+			else if( c < 0x20) // not a unicode escape, which would become a line terminator before the literal is parsed
+				builder.append( String.format( "\\%03o", Integer.valueOf( c)));
+			else if( c > 0x7e)
+				builder.append( String.format( "\\u%04x", Integer.valueOf( c)));
+			else
+				builder.append( c);
+		return builder.toString();
+	}
+}
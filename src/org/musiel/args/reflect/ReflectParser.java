@@ -13,23 +13,20 @@
 package org.musiel.args.reflect;
 
 import java.lang.reflect.InvocationHandler;
-import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.lang.reflect.Proxy;
 import java.util.Collection;
-import java.util.Collections;
-import java.util.HashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
-import java.util.Map.Entry;
 
 import org.musiel.args.ArgumentException;
 import org.musiel.args.ArgumentPolicy;
-import org.musiel.args.DefaultAccessor;
 import org.musiel.args.Option;
+import org.musiel.args.Parser;
 import org.musiel.args.Result;
 import org.musiel.args.generic.AbstractResult;
+import org.musiel.args.generic.ErrorCollection;
 import org.musiel.args.generic.GenericAccessor;
 import org.musiel.args.generic.InternationalizedParser;
 import org.musiel.args.syntax.GnuSyntax;
@@ -54,13 +51,14 @@ public class ReflectParser< MODEL> extends InternationalizedParser< Result< MODE
 	}
 
 	private final Class< MODEL> model;
-	private final Map< Method, MethodHandler> methodHandlers = new HashMap<>();
+	private final ModelDescriptor descriptor;
+	// each parser has its own, as declared decoders are not required to be thread-safe
+	private final MethodHandler[] methodHandlers;
 
 	public ReflectParser( final Syntax syntax, final Class< MODEL> model) {
 		super( syntax);
-
-		if( !model.isInterface())
-			throw new IllegalArgumentException( model.getName() + " is not an interface");
+		this.descriptor = ModelDescriptor.forModel( model);
+		this.methodHandlers = this.descriptor.newMethodHandlers();
 		this.model = model;
 
 		if( model.isAnnotationPresent( OperandPattern.class)) {
@@ -74,49 +72,116 @@ public class ReflectParser< MODEL> extends InternationalizedParser< Result< MODE
 		if( model.isAnnotationPresent( Description.class))
 			this.setDescription( model.getAnnotation( Description.class).value());
 
-		for( final Method method: model.getMethods())
-			if( !DefaultAccessor.class.equals( method.getDeclaringClass()))
-				this.methodHandlers.put( method,
-						method.isAnnotationPresent( Operands.class)? new OperandHandler( method, this.getOperandPatternMatcher())
-								: new OptionHandler( method, this));
+		for( final MethodHandler methodHandler: this.methodHandlers)
+			if( methodHandler instanceof OptionHandler)
+				( ( OptionHandler) methodHandler).register( this);
+	}
+
+	private boolean lazyDecoding = false;
+
+	public boolean isLazyDecoding() {
+		return this.lazyDecoding;
+	}
+
+	/**
+	 * Sets whether the value of each method of the model is decoded only when the method is first called, and then kept, instead of all
+	 * values being decoded before the result is returned. Decoding errors are then found only when they are asked for, so
+	 * {@link Result#getErrors()} and the check methods of the result decode every value not decoded yet. The model instance can be shared
+	 * among threads. Disabled by default.
+	 * 
+	 * @param lazyDecoding
+	 */
+	public void setLazyDecoding( final boolean lazyDecoding) {
+		this.checkNotFrozen();
+		this.lazyDecoding = lazyDecoding;
 	}
 
 	@ Override
 	protected Result< MODEL> adapt( final SyntaxResult syntaxResult, final Map< String, List< String>> operands,
 			final Collection< ? extends ArgumentException> parseTimeExceptions) {
-		final Collection< ArgumentException> exceptions = new LinkedHashSet<>( parseTimeExceptions);
 		final GenericAccessor basicAccessor = new GenericAccessor( syntaxResult, operands);
+		final Map< Method, Integer> slots = this.descriptor.slots;
+
+		if( this.lazyDecoding) {
+			final LazyValues values =
+					new LazyValues( this.methodHandlers, this.descriptor.undecodedValues, basicAccessor, parseTimeExceptions,
+							this.isFailFast());
+			return new AbstractResult< MODEL>( null, this.newProxy( slots, basicAccessor, new ValueSource() {
+
+				@ Override
+				public Object get( final int slot) {
+					return values.get( slot);
+				}
+			})) {
+
+				@ Override
+				public Collection< ? extends ArgumentException> getErrors() {
+					return values.getErrors();
+				}
+			};
+		}
+
+		final Collection< ArgumentException> decodingExceptions = new LinkedHashSet<>();
+		final Object[] values =
+				MethodHandler.decodeAll( this.methodHandlers, this.descriptor.undecodedValues, basicAccessor, parseTimeExceptions,
+						this.isFailFast(), decodingExceptions);
 
-		final Map< Method, Object> decoded = new HashMap<>();
-		for( final Entry< Method, MethodHandler> methodHandlerPair: this.methodHandlers.entrySet())
-			if( !DefaultAccessor.class.equals( methodHandlerPair.getKey().getDeclaringClass()))
-				decoded.put( methodHandlerPair.getKey(),
-						methodHandlerPair.getValue().decode( basicAccessor, new ExceptionHandler< DecoderException>() {
-
-							@ Override
-							public void handle( DecoderException exception) {
-								exceptions.add( exception);
-							}
-						}));
-
-		return new AbstractResult< MODEL>( Collections.unmodifiableCollection( exceptions), this.model.cast( Proxy.newProxyInstance(
-				this.model.getClassLoader(), new Class< ?>[]{ this.model}, new InvocationHandler() {
-
-					@ Override
-					public Object invoke( final Object proxy, final Method method, final Object[] args) throws IllegalAccessException,
-							InvocationTargetException {
-						if( DefaultAccessor.class.equals( method.getDeclaringClass()))
-							return method.invoke( basicAccessor, args);
-						return decoded.get( method);
-					}
-				})));
+		final Collection< ArgumentException> exceptions = new ErrorCollection().append( parseTimeExceptions).append( decodingExceptions);
+		return new AbstractResult< MODEL>( exceptions, this.newProxy( slots, basicAccessor, new ValueSource() {
+
+			@ Override
+			public Object get( final int slot) {
+				return values[ slot];
+			}
+		}));
+	}
+
+	private static interface ValueSource {
+
+		public Object get( int slot);
+	}
+
+	private MODEL newProxy( final Map< Method, Integer> slots, final GenericAccessor basicAccessor, final ValueSource values) {
+		return this.model.cast( Proxy.newProxyInstance( this.model.getClassLoader(), new Class< ?>[]{ this.model}, new InvocationHandler() {
+
+			@ Override
+			public Object invoke( final Object proxy, final Method method, final Object[] args) {
+				final Integer slot = slots.get( method);
+				if( slot != null)
+					return values.get( slot.intValue());
+				final AccessorMethod accessorMethod = AccessorMethod.forMethod( method);
+				if( accessorMethod != null)
+					return accessorMethod.call( basicAccessor, args);
+				// not a model method
+				return method.getReturnType().isPrimitive()? PrimitiveType.forPrimitiveType( method.getReturnType()).getDefaultValue()
+						: null;
+			}
+		}));
 	}
 
 	public static < MODEL>Result< MODEL> parse( final Syntax syntax, final Class< MODEL> resultType, final String... args) {
 		return new ReflectParser< MODEL>( syntax, resultType).parse( args);
 	}
 
+	// frozen parsers with the default syntax, kept with each model class itself, so that no class loader is kept alive by the cache
+	private static final ClassValue< Parser< ?>> DEFAULT_PARSERS = new ClassValue< Parser< ?>>() {
+
+		@ Override
+		protected Parser< ?> computeValue( final Class< ?> model) {
+			return new ReflectParser<>( model).freeze();
+		}
+	};
+
+	/**
+	 * Parses with the default syntax. The parser of each model is created only once, and shared by all calls.
+	 * 
+	 * @param resultType
+	 * @param args
+	 * @return
+	 */
 	public static < MODEL>Result< MODEL> parse( final Class< MODEL> resultType, final String... args) {
-		return new ReflectParser< MODEL>( resultType).parse( args);
+		@ SuppressWarnings( "unchecked")
+		final Parser< Result< MODEL>> parser = ( Parser< Result< MODEL>>) ReflectParser.DEFAULT_PARSERS.get( resultType);
+		return parser.parse( args);
 	}
 }
@@ -17,7 +17,6 @@ import java.lang.annotation.Inherited;
 import java.lang.annotation.Retention;
 import java.lang.annotation.RetentionPolicy;
 import java.lang.annotation.Target;
-import java.math.BigInteger;
 
 @ Retention( RetentionPolicy.RUNTIME)
 @ Target( ElementType.METHOD)
@@ -34,7 +33,7 @@ public @ interface ShortValue {
 	static class Decoder extends IntegerNumberDecoder< Short> {
 
 		public Decoder( final int radix, final String min, final String max) {
-			super( radix, min, max);
+			super( radix, min, max, Short.MIN_VALUE, Short.MAX_VALUE);
 		}
 
 		public Decoder( final ShortValue annotation) {
@@ -46,8 +45,8 @@ public @ interface ShortValue {
 		}
 
 		@ Override
-		protected Short cast( final BigInteger decoded) {
-			return Short.valueOf( decoded.shortValue());
+		public Short decode( final String string) throws DecoderException {
+			return Short.valueOf( ( short) this.decodeLong( string));
 		}
 	}
 }
@@ -41,6 +41,17 @@ abstract class ValueConstructor {
 	public abstract Object decode( ExceptionHandler< ? super DecoderException> exceptionHandler, String overrideDefaultValue,
 			String environmentVariableName, String... stringValues);
 
+	/**
+	 * Constructs a value from the number of occurrences only, used instead of the method above if this constructor does not depend on
+	 * content, so that no arguments are retrieved.
+	 * 
+	 * @param occurrences
+	 * @return
+	 */
+	public Object decode( final int occurrences) {
+		return this.defaultValue;
+	}
+
 	protected Object decodeSingle( final String overrideDefaultValue, final String environmentVariableName, final String value,
 			final ExceptionHandler< ? super DecoderException> exceptionHandler) {
 		if( value != null)
@@ -68,6 +79,86 @@ abstract class ValueConstructor {
 			}
 		return this.defaultValue;
 	}
+
+	/**
+	 * Decodes arrays of a primitive type element by element into the array itself, with no boxing. Values from the environment variable
+	 * or the default value are rare, and set boxed, subclasses only store decoded elements.
+	 * 
+	 * @param <ARRAY>
+	 */
+	abstract static class PrimitiveArrayConstructor< ARRAY> extends ValueConstructor {
+
+		private final Class< ?> componentType;
+
+		PrimitiveArrayConstructor( final Decoder< ?> decoder, final Class< ?> componentType, final Object defaultValue) {
+			super( true, true, decoder, defaultValue);
+			this.componentType = componentType;
+		}
+
+		protected abstract void store( ARRAY array, int index, String stringValue) throws DecoderException;
+
+		@ Override
+		public Object decode( final ExceptionHandler< ? super DecoderException> exceptionHandler, final String overrideDefaultValue,
+				final String environmentVariableName, final String... stringValues) {
+			@ SuppressWarnings( "unchecked")
+			final ARRAY array = ( ARRAY) Array.newInstance( this.componentType, stringValues.length);
+			for( int index = 0; index < stringValues.length; ++index)
+				if( stringValues[ index] == null)
+					Array.set( array, index, this.decodeSingle( overrideDefaultValue, environmentVariableName, null, exceptionHandler));
+				else
+					try {
+						this.store( array, index, stringValues[ index]);
+					} catch( final DecoderException exception) {
+						exceptionHandler.handle( exception);
+					}
+			return array;
+		}
+	}
+
+	static class IntArrayConstructor extends PrimitiveArrayConstructor< int[]> {
+
+		private final IntDecoder decoder;
+
+		public IntArrayConstructor( final IntDecoder decoder) {
+			super( decoder, int.class, 0);
+			this.decoder = decoder;
+		}
+
+		@ Override
+		protected void store( final int[] array, final int index, final String stringValue) throws DecoderException {
+			array[ index] = this.decoder.decodeInt( stringValue);
+		}
+	}
+
+	static class LongArrayConstructor extends PrimitiveArrayConstructor< long[]> {
+
+		private final LongDecoder decoder;
+
+		public LongArrayConstructor( final LongDecoder decoder) {
+			super( decoder, long.class, 0L);
+			this.decoder = decoder;
+		}
+
+		@ Override
+		protected void store( final long[] array, final int index, final String stringValue) throws DecoderException {
+			array[ index] = this.decoder.decodeLong( stringValue);
+		}
+	}
+
+	static class DoubleArrayConstructor extends PrimitiveArrayConstructor< double[]> {
+
+		private final DoubleDecoder decoder;
+
+		public DoubleArrayConstructor( final DoubleDecoder decoder) {
+			super( decoder, double.class, 0.0D);
+			this.decoder = decoder;
+		}
+
+		@ Override
+		protected void store( final double[] array, final int index, final String stringValue) throws DecoderException {
+			array[ index] = this.decoder.decodeDouble( stringValue);
+		}
+	}
 }
 
 class NullConstructor extends ValueConstructor {
@@ -92,7 +183,12 @@ class ExistenceIndicator extends ValueConstructor {
 	@ Override
 	public Object decode( final ExceptionHandler< ? super DecoderException> exceptionHandler, final String overrideDefaultValue,
 			final String environmentVariableName, final String... stringValues) {
-		return Boolean.valueOf( stringValues.length > 0);
+		return this.decode( stringValues.length);
+	}
+
+	@ Override
+	public Object decode( final int occurrences) {
+		return Boolean.valueOf( occurrences > 0);
 	}
 }
 
@@ -12,81 +12,421 @@
  */
 package org.musiel.args.syntax;
 
+import java.util.AbstractCollection;
+import java.util.AbstractList;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Iterator;
-import java.util.LinkedList;
 import java.util.List;
-import java.util.Map;
-import java.util.Map.Entry;
-import java.util.Set;
-import java.util.TreeMap;
+import java.util.RandomAccess;
 
 import org.musiel.args.ArgumentException;
 import org.musiel.args.Option;
-import org.musiel.args.syntax.Syntax.SyntaxResult;
+import org.musiel.args.syntax.Syntax.OrderedSyntaxResult;
 
-public abstract class AbstractParseResult implements SyntaxResult {
+/**
+ * A base for {@link OrderedSyntaxResult} implementations that are filled by a syntax machine.
+ * 
+ * <p>
+ * Option occurrences are kept in a flat log, in the order they appear in the argument array. The log is a set of parallel columns: the
+ * option id and name id (see {@link OptionIndex}), the option-argument, and a link to the next occurrence of the same option. Unknown
+ * option names get ids beyond those of the index, in the order they are first met. Lists returned by {@link #getNames(String)} and
+ * {@link #getArguments(String)} are views over the log.
+ * </p>
+ * 
+ * @author Bagana
+ */
+public abstract class AbstractParseResult implements OrderedSyntaxResult {
 
-	protected final LinkedList< ArgumentException> errors = new LinkedList<>();
+	/**
+	 * Kinds of errors found by syntax machines.
+	 * 
+	 * @author Bagana
+	 */
+	protected static enum ErrorKind {
+		UNKNOWN_OPTION, LATE_OPTION, AMBIGUOUS_OPTION_NAME, MISSING_OPTION, TOO_MANY_OCCURRENCE, UNEXPECTED_ARGUMENT, ARGUMENT_REQUIRED
+	}
 
+	// errors are recorded as their kinds, option names and option ids (-1 if not needed), and only turned into exceptions on request
+	private int errorCount = 0;
+	private ErrorKind[] errorKinds = null;
+	private String[] errorNames = null;
+	private int[] errorOptionIds = null;
+	private volatile List< ArgumentException> errorList = null;
+
+	/**
+	 * Returns the errors, which are created when the collection is iterated over for the first time. {@link Collection#size()} and
+	 * {@link Collection#isEmpty()} do not create them.
+	 */
 	@ Override
 	public Collection< ? extends ArgumentException> getErrors() {
-		return Collections.unmodifiableCollection( this.errors);
+		return new AbstractCollection< ArgumentException>() {
+
+			@ Override
+			public Iterator< ArgumentException> iterator() {
+				return AbstractParseResult.this.getErrorList().iterator();
+			}
+
+			@ Override
+			public int size() {
+				return AbstractParseResult.this.errorCount;
+			}
+		};
 	}
 
-	private final Set< Option> options;
-	protected final Map< String, Option> optionDictionary = new TreeMap<>();
-	protected List< String> operands = new LinkedList<>();
+	// results may be shared among threads once built, so the list is created at most once
+	private List< ArgumentException> getErrorList() {
+		List< ArgumentException> errorList = this.errorList;
+		if( errorList == null)
+			synchronized( this) {
+				errorList = this.errorList;
+				if( errorList == null) {
+					final ArgumentException[] errors = new ArgumentException[ this.errorCount];
+					for( int index = 0; index < errors.length; ++index)
+						errors[ index] = this.newError( this.errorKinds[ index], this.errorNames[ index], this.errorOptionIds[ index]);
+					this.errorList = errorList = Collections.unmodifiableList( Arrays.asList( errors));
+				}
+			}
+		return errorList;
+	}
 
-	protected AbstractParseResult( final Set< Option> options) {
-		this.options = options;
-		for( final Option option: this.options)
-			for( final String name: option.getNames())
-				if( this.optionDictionary.containsKey( name))
-					throw new IllegalArgumentException( "duplicate name: " + name);
-				else
-					this.optionDictionary.put( name, option);
+	private ArgumentException newError( final ErrorKind kind, final String optionName, final int optionId) {
+		switch( kind) {
+			case UNKNOWN_OPTION:
+				return new UnknownOptionException( optionName);
+			case LATE_OPTION:
+				return new LateOptionException( optionName);
+			case AMBIGUOUS_OPTION_NAME:
+				return new AmbiguousOptionNameException( optionName, this.optionIndex.findByPrefix( optionName, 0, optionName.length()));
+			case MISSING_OPTION:
+				return new MissingOptionException( optionName);
+			case TOO_MANY_OCCURRENCE:
+				if( this.listener != null)
+					// reported on the second occurrence, and nothing is logged
+					return new TooManyOccurrenceException( optionName, Arrays.asList( this.optionIndex.getName( this.firstOccurrences[ this
+							.findSlot( optionId)]), optionName));
+				final List< String> names = new OccurrenceView( optionId, false);
+				return new TooManyOccurrenceException( names.get( 1), names);
+			case UNEXPECTED_ARGUMENT:
+				return new UnexpectedArgumentException( optionName);
+			case ARGUMENT_REQUIRED:
+				return new ArgumentRequiredException( optionName);
+			default:
+				throw new IllegalArgumentException( String.valueOf( kind));
+		}
 	}
 
-	private final Map< String, List< String>> optionNames = new TreeMap<>();
-	private final Map< String, List< String>> optionArguments = new TreeMap<>();
+	protected final OptionIndex optionIndex;
+	protected List< String> operands = new ArrayList<>();
 
-	private String getCanonicalName( final String optionName) {
-		final Option option = this.optionDictionary.get( optionName);
-		return option != null? option.getName(): optionName;
+	private final SyntaxListener listener;
+	private final boolean failFast;
+	private boolean operandFound = false;
+	private final IncrementalCompiledSyntax.OperandSink operandSink;
+	private boolean operandRefused = false;
+
+	/**
+	 * @param optionIndex
+	 *            shared (read-only) by all results parsed against the same options
+	 */
+	protected AbstractParseResult( final OptionIndex optionIndex) {
+		this( optionIndex, null, false);
+	}
+
+	/**
+	 * @param optionIndex
+	 *            shared (read-only) by all results parsed against the same options
+	 * @param listener
+	 *            if not <code>null</code>, nothing is stored in this result, everything is reported to the listener as soon as it is found
+	 * @param failFast
+	 *            whether only the first error is recorded, see {@link #isAborted()}
+	 */
+	protected AbstractParseResult( final OptionIndex optionIndex, final SyntaxListener listener, final boolean failFast) {
+		this( optionIndex, listener, null, failFast);
+	}
+
+	/**
+	 * @param optionIndex
+	 *            shared (read-only) by all results parsed against the same options
+	 * @param listener
+	 *            if not <code>null</code>, nothing is stored in this result, everything is reported to the listener as soon as it is found
+	 * @param operandSink
+	 *            where operands are offered as soon as they are found, besides being kept in this result, <code>null</code> for none. If
+	 *            it refuses an operand, a fail-fast parsing is aborted
+	 * @param failFast
+	 *            whether only the first error is recorded, see {@link #isAborted()}
+	 */
+	protected AbstractParseResult( final OptionIndex optionIndex, final SyntaxListener listener,
+			final IncrementalCompiledSyntax.OperandSink operandSink, final boolean failFast) {
+		this.optionIndex = optionIndex;
+		this.listener = listener;
+		this.operandSink = operandSink;
+		this.failFast = failFast;
+		this.occurredOptions = new long[ optionIndex.getWordCount()];
+	}
+
+	// the occurrence log
+	private int occurrenceCount = 0;
+	private int[] occurrenceOptionIds = new int[ 4];
+	private int[] occurrenceNameIds = new int[ 4];
+	private int[] nextOccurrences = new int[ 4]; // of the same option, -1 for none
+	private final SliceList occurrenceArguments = new SliceList();
+
+	// per-option state is kept in slots, assigned to options (known or not) in the order of their first occurrences, so that nothing is
+	// allocated or visited for an option that does not occur. when listening, first holds the name id of the first occurrence instead,
+	// and last is not used
+	private int slotCount = 0;
+	private int[] slotOptionIds = new int[ 4];
+	private int[] firstOccurrences = new int[ 4];
+	private int[] lastOccurrences = new int[ 4];
+	private int[] occurrenceCounts = new int[ 4];
+	// slot + 1 by option id, open addressing with linear probing, 0 for an empty entry
+	private int[] slotTable = new int[ 8];
+	// bit set of known options that have occurred, indexed by option id
+	private final long[] occurredOptions;
+
+	private static int hash( final int optionId) {
+		final int hash = optionId * 0x9e3779b9;
+		return hash ^ hash >>> 16;
 	}
 
-	private List< String> getNamesInternal( final String optionName) {
-		final String canonicalName = this.getCanonicalName( optionName);
-		List< String> list = this.optionNames.get( canonicalName);
-		if( list == null)
-			this.optionNames.put( canonicalName, list = new LinkedList<>());
-		return list;
+	// -1 if the option has not occurred
+	private int findSlot( final int optionId) {
+		for( int entry = AbstractParseResult.hash( optionId) & this.slotTable.length - 1;; entry = entry + 1 & this.slotTable.length - 1) {
+			final int slot = this.slotTable[ entry] - 1;
+			if( slot < 0 || this.slotOptionIds[ slot] == optionId)
+				return slot;
+		}
 	}
 
-	private List< String> getArgumentsInternal( final String optionName) {
-		final String canonicalName = this.getCanonicalName( optionName);
-		List< String> list = this.optionArguments.get( canonicalName);
-		if( list == null)
-			this.optionArguments.put( canonicalName, list = new LinkedList<>());
-		return list;
+	private int getSlot( final int optionId) {
+		int slot = this.findSlot( optionId);
+		if( slot >= 0)
+			return slot;
+
+		slot = this.slotCount++;
+		if( slot == this.slotOptionIds.length) {
+			this.slotOptionIds = Arrays.copyOf( this.slotOptionIds, slot * 2);
+			this.firstOccurrences = Arrays.copyOf( this.firstOccurrences, slot * 2);
+			this.lastOccurrences = Arrays.copyOf( this.lastOccurrences, slot * 2);
+			this.occurrenceCounts = Arrays.copyOf( this.occurrenceCounts, slot * 2);
+		}
+		this.slotOptionIds[ slot] = optionId;
+		if( this.slotCount * 2 > this.slotTable.length) {
+			this.slotTable = new int[ this.slotTable.length * 2];
+			for( int index = 0; index < this.slotCount; ++index)
+				this.insertSlot( index);
+		} else
+			this.insertSlot( slot);
+		if( optionId < this.optionIndex.getOptionCount())
+			this.occurredOptions[ optionId >>> 6] |= 1L << optionId;
+		return slot;
+	}
+
+	private void insertSlot( final int slot) {
+		int entry = AbstractParseResult.hash( this.slotOptionIds[ slot]) & this.slotTable.length - 1;
+		while( this.slotTable[ entry] != 0)
+			entry = entry + 1 & this.slotTable.length - 1;
+		this.slotTable[ entry] = slot + 1;
+	}
+
+	private final List< String> unknownNames = new ArrayList<>( 0);
+
+	private String getName( final int nameId) {
+		return nameId < this.optionIndex.getNameCount()? this.optionIndex.getName( nameId): this.unknownNames.get( nameId
+				- this.optionIndex.getNameCount());
+	}
+
+	private Option getOption( final int optionId) {
+		return optionId < this.optionIndex.getOptionCount()? this.optionIndex.getOption( optionId): null;
+	}
+
+	// -1 if the name is neither known nor used
+	private int getOptionId( final String optionName) {
+		final int nameId = this.optionIndex.find( optionName);
+		if( nameId >= 0)
+			return this.optionIndex.getOptionId( nameId);
+		final int unknownIndex = this.unknownNames.indexOf( optionName);
+		return unknownIndex < 0? -1: this.optionIndex.getOptionCount() + unknownIndex;
+	}
+
+	/**
+	 * Records an error.
+	 * 
+	 * @param kind
+	 * @param optionName
+	 *            the option name as typed, for {@link ErrorKind#AMBIGUOUS_OPTION_NAME} it is the prefix
+	 */
+	protected void addError( final ErrorKind kind, final String optionName) {
+		this.addError( kind, optionName, -1);
+	}
+
+	private void addError( final ErrorKind kind, final String optionName, final int optionId) {
+		if( this.isAborted())
+			return;
+		if( this.listener != null) {
+			// only counted, a listening machine is never exposed as a result
+			++this.errorCount;
+			this.listener.onError( this.newError( kind, optionName, optionId));
+			return;
+		}
+		if( this.errorKinds == null) {
+			this.errorKinds = new ErrorKind[ 2];
+			this.errorNames = new String[ 2];
+			this.errorOptionIds = new int[ 2];
+		} else if( this.errorCount == this.errorKinds.length) {
+			this.errorKinds = Arrays.copyOf( this.errorKinds, this.errorCount * 2);
+			this.errorNames = Arrays.copyOf( this.errorNames, this.errorCount * 2);
+			this.errorOptionIds = Arrays.copyOf( this.errorOptionIds, this.errorCount * 2);
+		}
+		this.errorKinds[ this.errorCount] = kind;
+		this.errorNames[ this.errorCount] = optionName;
+		this.errorOptionIds[ this.errorCount] = optionId;
+		++this.errorCount;
+	}
+
+	/**
+	 * Returns whether an error has been recorded, or an operand has been refused, in fail-fast mode, after which nothing more should be
+	 * fed, and {@link #build()} does nothing but end the parsing.
+	 * 
+	 * @return
+	 */
+	protected boolean isAborted() {
+		return this.failFast && ( this.errorCount > 0 || this.operandRefused);
+	}
+
+	protected void addOperand( final String operand) {
+		this.operandFound = true;
+		if( this.listener == null) {
+			this.operands.add( operand);
+			if( this.operandSink != null && !this.operandSink.offer( operand) && this.failFast)
+				this.operandRefused = true;
+		} else
+			this.listener.onOperand( operand);
+	}
+
+	protected boolean isOperandFound() {
+		return this.operandFound;
 	}
 
 	protected void push( final String optionName, final String optionArgument) {
-		this.getNamesInternal( optionName).add( optionName);
-		this.getArgumentsInternal( optionName).add( optionArgument);
+		this.push( this.optionIndex.find( optionName), optionName, optionArgument);
+	}
+
+	/**
+	 * Records an occurrence of an option whose lookup is already done.
+	 * 
+	 * @param nameId
+	 *            id of the name in the {@link OptionIndex}, or a negative value for an unknown name
+	 * @param optionName
+	 * @param optionArgument
+	 */
+	protected void push( final int nameId, final String optionName, final String optionArgument) {
+		if( this.listener != null)
+			this.report( nameId, optionName, optionArgument);
+		else {
+			this.append( nameId, optionName);
+			this.occurrenceArguments.addString( optionArgument);
+		}
+	}
+
+	/**
+	 * Records an occurrence of an option whose option-argument is a part of a command line argument. The option-argument is not cut out
+	 * until it is requested.
+	 * 
+	 * @param nameId
+	 *            id of the name in the {@link OptionIndex}, or a negative value for an unknown name
+	 * @param optionName
+	 * @param arg
+	 *            the command line argument containing the option-argument
+	 * @param argumentStart
+	 * @param argumentEnd
+	 */
+	protected void push( final int nameId, final String optionName, final String arg, final int argumentStart, final int argumentEnd) {
+		if( this.listener != null)
+			this.report( nameId, optionName, arg.substring( argumentStart, argumentEnd));
+		else {
+			this.append( nameId, optionName);
+			this.occurrenceArguments.addSlice( arg, argumentStart, argumentEnd);
+		}
+	}
+
+	// validates a single occurrence and passes it to the listener
+	private void report( final int nameId, final String optionName, final String optionArgument) {
+		final Option option = nameId < 0? null: this.optionIndex.getOption( this.optionIndex.getOptionId( nameId));
+		if( option != null) {
+			final int optionId = this.optionIndex.getOptionId( nameId);
+			final int slot = this.getSlot( optionId);
+			final int count = ++this.occurrenceCounts[ slot];
+			if( count == 1)
+				this.firstOccurrences[ slot] = nameId;
+			else if( count == 2 && !this.optionIndex.isRepeatable( optionId))
+				this.addError( ErrorKind.TOO_MANY_OCCURRENCE, optionName, optionId);
+			if( optionArgument != null && !this.optionIndex.isArgumentAccepted( optionId))
+				this.addError( ErrorKind.UNEXPECTED_ARGUMENT, optionName);
+			if( optionArgument == null && this.optionIndex.isArgumentRequired( optionId))
+				this.addError( ErrorKind.ARGUMENT_REQUIRED, optionName);
+		}
+		this.listener.onOption( option, optionName, optionArgument);
+	}
+
+	private void append( int nameId, final String optionName) {
+		int optionId;
+		if( nameId >= 0)
+			optionId = this.optionIndex.getOptionId( nameId);
+		else {
+			int unknownIndex = this.unknownNames.indexOf( optionName);
+			if( unknownIndex < 0) {
+				unknownIndex = this.unknownNames.size();
+				this.unknownNames.add( optionName);
+			}
+			nameId = this.optionIndex.getNameCount() + unknownIndex;
+			optionId = this.optionIndex.getOptionCount() + unknownIndex;
+		}
+
+		final int occurrence = this.occurrenceCount++;
+		if( occurrence == this.occurrenceOptionIds.length) {
+			this.occurrenceOptionIds = Arrays.copyOf( this.occurrenceOptionIds, occurrence * 2);
+			this.occurrenceNameIds = Arrays.copyOf( this.occurrenceNameIds, occurrence * 2);
+			this.nextOccurrences = Arrays.copyOf( this.nextOccurrences, occurrence * 2);
+		}
+		this.occurrenceOptionIds[ occurrence] = optionId;
+		this.occurrenceNameIds[ occurrence] = nameId;
+		this.nextOccurrences[ occurrence] = -1;
+		final int slot = this.getSlot( optionId);
+		if( this.occurrenceCounts[ slot]++ == 0)
+			this.firstOccurrences[ slot] = occurrence;
+		else
+			this.nextOccurrences[ this.lastOccurrences[ slot]] = occurrence;
+		this.lastOccurrences[ slot] = occurrence;
 	}
 
 	@ Override
 	public List< String> getNames( final String optionName) {
-		return Collections.unmodifiableList( this.getNamesInternal( optionName));
+		final int optionId = this.getOptionId( optionName);
+		return optionId < 0? Collections.< String> emptyList(): new OccurrenceView( optionId, false);
 	}
 
 	@ Override
 	public List< String> getArguments( final String optionName) {
-		return Collections.unmodifiableList( this.getArgumentsInternal( optionName));
+		final int optionId = this.getOptionId( optionName);
+		return optionId < 0? Collections.< String> emptyList(): new OccurrenceView( optionId, true);
+	}
+
+	@ Override
+	public int getOccurrenceCount( final String optionName) {
+		final int nameId = this.optionIndex.find( optionName);
+		if( nameId >= 0) {
+			final int optionId = this.optionIndex.getOptionId( nameId);
+			if( ( this.occurredOptions[ optionId >>> 6] & 1L << optionId) == 0)
+				return 0;
+			return this.occurrenceCounts[ this.findSlot( optionId)];
+		}
+		final int optionId = this.getOptionId( optionName);
+		final int slot = optionId < 0? -1: this.findSlot( optionId);
+		return slot < 0? 0: this.occurrenceCounts[ slot];
 	}
 
 	@ Override
@@ -94,47 +434,117 @@ public abstract class AbstractParseResult implements SyntaxResult {
 		return Collections.unmodifiableList( this.operands);
 	}
 
-	protected void build() {
-		for( final Option option: this.options) {
-			final List< String> names = this.getNamesInternal( option.getName());
-			final List< String> arguments = this.getArgumentsInternal( option.getName());
-
-			if( option.isRequired() && ( names == null || names.isEmpty()))
-				this.errors.add( new MissingOptionException( option.getName()));
-
-			if( !option.isRepeatable() && names != null && names.size() > 1)
-				this.errors.add( new TooManyOccurrenceException( names.get( 1), names));
-
-			if( !option.getArgumentPolicy().isAccepted()) {
-				final Iterator< String> nameIterator = names.iterator();
-				final Iterator< String> argumentIterator = arguments.iterator();
-				while( nameIterator.hasNext()) {
-					final String name = nameIterator.next();
-					final String argument = argumentIterator.next();
-					if( argument != null)
-						this.errors.add( new UnexpectedArgumentException( name));
-				}
+	@ Override
+	public List< Occurrence> getOccurrences() {
+		return new AbstractList< Occurrence>() {
+
+			@ Override
+			public Occurrence get( final int index) {
+				if( index < 0 || index >= AbstractParseResult.this.occurrenceCount)
+					throw new IndexOutOfBoundsException( String.valueOf( index));
+				return new OccurrenceImpl( index);
 			}
 
-			if( option.getArgumentPolicy().isRequired()) {
-				final Iterator< String> nameIterator = names.iterator();
-				final Iterator< String> argumentIterator = arguments.iterator();
-				while( nameIterator.hasNext()) {
-					final String name = nameIterator.next();
-					final String argument = argumentIterator.next();
-					if( argument == null)
-						this.errors.add( new ArgumentRequiredException( name));
-				}
+			@ Override
+			public int size() {
+				return AbstractParseResult.this.occurrenceCount;
+			}
+		};
+	}
+
+	private class OccurrenceImpl implements Occurrence {
+
+		private final int occurrence;
+
+		OccurrenceImpl( final int occurrence) {
+			this.occurrence = occurrence;
+		}
+
+		@ Override
+		public Option getOption() {
+			return AbstractParseResult.this.getOption( AbstractParseResult.this.occurrenceOptionIds[ this.occurrence]);
+		}
+
+		@ Override
+		public String getName() {
+			return AbstractParseResult.this.getName( AbstractParseResult.this.occurrenceNameIds[ this.occurrence]);
+		}
+
+		@ Override
+		public String getArgument() {
+			return AbstractParseResult.this.occurrenceArguments.get( this.occurrence);
+		}
+
+		@ Override
+		public String toString() {
+			final String argument = this.getArgument();
+			return argument == null? this.getName(): this.getName() + " " + argument;
+		}
+	}
+
+	// names or arguments of the occurrences of one option
+	private class OccurrenceView extends AbstractList< String> implements RandomAccess {
+
+		private final int[] occurrences;
+		private final boolean arguments;
+
+		OccurrenceView( final int optionId, final boolean arguments) {
+			final int slot = AbstractParseResult.this.findSlot( optionId);
+			this.occurrences = new int[ slot < 0? 0: AbstractParseResult.this.occurrenceCounts[ slot]];
+			int occurrence = slot < 0? -1: AbstractParseResult.this.firstOccurrences[ slot];
+			for( int index = 0; index < this.occurrences.length; ++index) {
+				this.occurrences[ index] = occurrence;
+				occurrence = AbstractParseResult.this.nextOccurrences[ occurrence];
 			}
+			this.arguments = arguments;
 		}
 
-		this.toArrayLists( this.optionNames);
-		this.toArrayLists( this.optionArguments);
-		this.operands = new ArrayList<>( this.operands);
+		@ Override
+		public String get( final int index) {
+			if( index < 0 || index >= this.occurrences.length)
+				throw new IndexOutOfBoundsException( String.valueOf( index));
+			return this.arguments? AbstractParseResult.this.occurrenceArguments.get( this.occurrences[ index]): AbstractParseResult.this
+					.getName( AbstractParseResult.this.occurrenceNameIds[ this.occurrences[ index]]);
+		}
+
+		@ Override
+		public int size() {
+			return this.occurrences.length;
+		}
 	}
 
-	private void toArrayLists( final Map< String, List< String>> map) {
-		for( final Entry< String, List< String>> entry: map.entrySet())
-			entry.setValue( new ArrayList<>( entry.getValue()));
+	/**
+	 * Validates the result against the options, and ends the parsing. Only the options that have occurred are visited, while the missing
+	 * ones are found by comparing bit sets.
+	 */
+	protected void build() {
+		for( int word = 0; word < this.occurredOptions.length && !this.isAborted(); ++word) {
+			final long occurred = this.occurredOptions[ word];
+			final long required = this.optionIndex.getRequiredBits( word);
+			// in the order of option ids. when listening, each occurrence is already checked
+			for( long bits = this.listener != null? required & ~occurred: required | occurred; bits != 0 && !this.isAborted(); bits &=
+					bits - 1) {
+				final int optionId = word << 6 | Long.numberOfTrailingZeros( bits);
+				if( ( occurred & Long.lowestOneBit( bits)) == 0) {
+					this.addError( ErrorKind.MISSING_OPTION, this.optionIndex.getOption( optionId).getName());
+					continue;
+				}
+
+				final int slot = this.findSlot( optionId);
+				if( !this.optionIndex.isRepeatable( optionId) && this.occurrenceCounts[ slot] > 1)
+					this.addError( ErrorKind.TOO_MANY_OCCURRENCE, null, optionId);
+
+				final boolean argumentAccepted = this.optionIndex.isArgumentAccepted( optionId);
+				final boolean argumentRequired = this.optionIndex.isArgumentRequired( optionId);
+				if( argumentAccepted && !argumentRequired)
+					continue;
+				for( int occurrence = this.firstOccurrences[ slot]; occurrence >= 0; occurrence = this.nextOccurrences[ occurrence])
+					if( this.occurrenceArguments.isNull( occurrence) == argumentRequired)
+						this.addError( argumentRequired? ErrorKind.ARGUMENT_REQUIRED: ErrorKind.UNEXPECTED_ARGUMENT, this
+								.getName( this.occurrenceNameIds[ occurrence]));
+			}
+		}
+		if( this.listener != null)
+			this.listener.onEnd();
 	}
 }
@@ -12,12 +12,33 @@
  */
 package org.musiel.args.syntax;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
 public class AmbiguousOptionNameException extends OptionException {
 
 	private static final long serialVersionUID = -1006033348922155735L;
 
+	private final List< String> candidates;
+
 	public AmbiguousOptionNameException( final String optionName) {
+		this( optionName, Collections.< String> emptyList());
+	}
+
+	public AmbiguousOptionNameException( final String optionName, final List< String> candidates) {
 		super( optionName, AmbiguousOptionNameException.class.getPackage().getName() + ".exceptions", AmbiguousOptionNameException.class
 				.getSimpleName(), optionName);
+		this.candidates = Collections.unmodifiableList( new ArrayList<>( candidates));
+	}
+
+	/**
+	 * Returns the option names the ambiguous name could be an abbreviation of, in lexicographical order. Could be empty, if the
+	 * candidates were not given at construction time.
+	 * 
+	 * @return
+	 */
+	public List< String> getCandidates() {
+		return this.candidates;
 	}
 }
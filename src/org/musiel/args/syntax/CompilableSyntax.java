@@ -0,0 +1,50 @@
+/*
+ * Copyright 2014 Bagana <bagana@musiel.org>
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License. You 
+ * may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS, 
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing 
+ * permissions and limitations under the License.
+ */
+package org.musiel.args.syntax;
+
+import java.util.Set;
+
+import org.musiel.args.Option;
+
+/**
+ * A {@link Syntax} that can be bound to a set of {@link Option}s once, ahead of parsing. A parser compiles such a syntax and reuses the
+ * result for every argument array, while any other {@link Syntax} parses each of them from scratch.
+ * 
+ * <p>
+ * {@link #parse(Set, String...)} is equivalent to <code>compile( options).parse( args)</code>. When the same options are used to parse
+ * many argument arrays, calling {@link #compile(Set)} once and reusing its result is preferred.
+ * </p>
+ * 
+ * @author Bagana
+ */
+public interface CompilableSyntax extends Syntax {
+
+	/**
+	 * Validates and indexes a set of options, and returns a {@link CompiledSyntax} that parses argument arrays against them with the
+	 * current configuration of this syntax.
+	 * 
+	 * @param options
+	 * @return
+	 * @throws IllegalArgumentException
+	 *             if any option is not supported by this syntax, or if an option name is used by more than one option
+	 */
+	public CompiledSyntax compile( Set< Option> options) throws IllegalArgumentException;
+
+	/**
+	 * Returns a number that changes whenever the configuration of this syntax changes, thus whenever a {@link CompiledSyntax} created
+	 * before may differ from one created now.
+	 * 
+	 * @return
+	 */
+	public int getModificationCount();
+}
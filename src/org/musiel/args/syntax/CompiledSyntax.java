@@ -0,0 +1,85 @@
+/*
+ * Copyright 2014 Bagana <bagana@musiel.org>
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License. You 
+ * may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS, 
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing 
+ * permissions and limitations under the License.
+ */
+package org.musiel.args.syntax;
+
+import java.util.Iterator;
+import java.util.Set;
+
+import org.musiel.args.Option;
+import org.musiel.args.syntax.Syntax.SyntaxResult;
+
+/**
+ * A {@link Syntax} bound to a fixed set of {@link Option}s, produced by {@link CompilableSyntax#compile(Set)}.
+ * 
+ * <p>
+ * The options are validated and indexed once, when the instance is created, so that any number of argument arrays can be parsed without
+ * repeating that work. The configuration of the {@link Syntax} is captured at compile time too, later changes to it do not affect an
+ * existing instance. Implementations MUST be immutable.
+ * </p>
+ * 
+ * @author Bagana
+ */
+public interface CompiledSyntax {
+
+	/**
+	 * Returns the options this instance is compiled for.
+	 * 
+	 * @return
+	 */
+	public Set< Option> getOptions();
+
+	/**
+	 * Returns whether parsing stops at the first error. If so, a result with errors holds exactly one of them, and what is found before
+	 * it, while no validation that needs the whole argument array is done.
+	 * 
+	 * @return
+	 */
+	public boolean isFailFast();
+
+	/**
+	 * Parses an argument array and returns the result.
+	 * 
+	 * @param args
+	 * @return
+	 */
+	public SyntaxResult parse( String... args);
+
+	/**
+	 * Parses a range of an argument array and returns the result. The array is not copied, and MUST NOT be modified until the parsing
+	 * finishes.
+	 * 
+	 * @param args
+	 * @param offset
+	 * @param length
+	 * @return
+	 */
+	public SyntaxResult parse( String[] args, int offset, int length);
+
+	/**
+	 * Parses arguments one by one as they are taken from an iterator, and returns the result. The arguments are never collected into an
+	 * array, so they may be produced lazily.
+	 * 
+	 * @param args
+	 * @return
+	 */
+	public SyntaxResult parse( Iterator< String> args);
+
+	/**
+	 * Parses arguments one by one as they are taken from an iterator, and reports everything found to a listener instead of building a
+	 * result.
+	 * 
+	 * @param args
+	 * @param listener
+	 */
+	public void parse( Iterator< String> args, SyntaxListener listener);
+}
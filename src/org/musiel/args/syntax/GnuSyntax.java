@@ -12,8 +12,8 @@
  */
 package org.musiel.args.syntax;
 
+import java.util.List;
 import java.util.Set;
-import java.util.TreeSet;
 import java.util.regex.Pattern;
 
 import org.musiel.args.Option;
@@ -70,6 +70,12 @@ public class GnuSyntax extends PosixSyntax {
 		return this;
 	}
 
+	@ Override
+	public GnuSyntax setFailFast( final boolean failFast) {
+		super.setFailFast( failFast);
+		return this;
+	}
+
 	private boolean abbreviationAllowed = true;
 
 	public boolean isAbbreviationAllowed() {
@@ -78,6 +84,7 @@ public class GnuSyntax extends PosixSyntax {
 
 	public GnuSyntax setAbbreviationAllowed( final boolean abbreviationAllowed) {
 		this.abbreviationAllowed = abbreviationAllowed;
+		this.modified();
 		return this;
 	}
 
@@ -98,16 +105,60 @@ public class GnuSyntax extends PosixSyntax {
 	}
 
 	@ Override
+	public CompiledSyntax compile( final Set< Option> options) throws IllegalArgumentException {
+		return new CompiledGnuSyntax( options);
+	}
+
+	/**
+	 * @deprecated see {@link PosixSyntax#newMachine(Set)}
+	 */
+	@ Override
+	@ Deprecated
 	protected PosixMachine newMachine( final Set< Option> options) {
 		return new GnuMachine( options);
 	}
 
-	protected class GnuMachine extends PosixMachine {
+	/**
+	 * A {@link CompiledSyntax} holding a snapshot of the configuration of the enclosing {@link GnuSyntax}, and the option dictionary.
+	 * 
+	 * @author Bagana
+	 */
+	protected class CompiledGnuSyntax extends CompiledPosixSyntax {
+
+		protected final boolean abbreviationAllowed = GnuSyntax.this.isAbbreviationAllowed();
 
-		public GnuMachine( final Set< Option> options) {
+		protected CompiledGnuSyntax( final Set< Option> options) throws IllegalArgumentException {
 			super( options);
 		}
 
+		@ Override
+		protected PosixMachine newMachine( final SyntaxListener listener, final OperandSink operandSink) {
+			return new GnuMachine( this, listener, operandSink);
+		}
+	}
+
+	protected class GnuMachine extends PosixMachine {
+
+		private final boolean abbreviationAllowed;
+
+		/**
+		 * @param options
+		 * @throws IllegalArgumentException
+		 *             if any of the options is not valid for this syntax
+		 * @deprecated see {@link PosixMachine#PosixMachine(Set)}
+		 */
+		@ Deprecated
+		public GnuMachine( final Set< Option> options) throws IllegalArgumentException {
+			// every compiled syntax of this class is a CompiledGnuSyntax
+			this( ( CompiledGnuSyntax) GnuSyntax.this.compile( options), null, null);
+		}
+
+		protected GnuMachine( final CompiledGnuSyntax compiledSyntax, final SyntaxListener listener,
+				final IncrementalCompiledSyntax.OperandSink operandSink) {
+			super( compiledSyntax, listener, operandSink);
+			this.abbreviationAllowed = compiledSyntax.abbreviationAllowed;
+		}
+
 		@ Override
 		protected void handleOption( final String arg) {
 			if( arg.startsWith( "--"))
@@ -118,40 +169,38 @@ public class GnuSyntax extends PosixSyntax {
 
 		private void handleLongOption( final String arg) {
 			final int equalPos = arg.indexOf( '=');
-			String optionName = equalPos < 0? arg: arg.substring( 0, equalPos); // "--" is possible here
-			final String argument = equalPos < 0? null: arg.substring( equalPos + 1);
-			if( !this.operands.isEmpty() && !GnuSyntax.this.isLateOptionsAllowed())
-				this.errors.add( new LateOptionException( optionName));
-
-			Option option = this.optionDictionary.get( optionName);
-			if( option == null)
-				if( !GnuSyntax.this.isAbbreviationAllowed())
-					this.errors.add( new UnknownOptionException( optionName));
+			final int nameEnd = equalPos < 0? arg.length(): equalPos; // "--" is possible here
+			int nameId = this.optionIndex.find( arg, 0, nameEnd);
+			if( this.isOperandFound() && !this.compiledSyntax.lateOptionsAllowed)
+				this.addError( ErrorKind.LATE_OPTION, nameId >= 0? this.optionIndex.getName( nameId): arg.substring( 0, nameEnd));
+
+			if( nameId < 0)
+				if( !this.abbreviationAllowed)
+					this.addError( ErrorKind.UNKNOWN_OPTION, arg.substring( 0, nameEnd));
 				else
-					option = this.optionDictionary.get( optionName = this.findAbbreviatedName( optionName));
-
-			if( argument != null || option != null && !option.getArgumentPolicy().isRequired())
-				this.push( optionName, argument);
-			else {
-				this.openOptionName = optionName;
-				this.openOption = option;
-			}
+					nameId = this.findAbbreviatedName( arg, nameEnd);
+			final Option option = this.getOption( nameId);
+			final String optionName = nameId >= 0? this.optionIndex.getName( nameId): arg.substring( 0, nameEnd);
+
+			if( equalPos >= 0)
+				this.push( nameId, optionName, arg, equalPos + 1, arg.length());
+			else if( option != null && !option.getArgumentPolicy().isRequired())
+				this.push( nameId, optionName, null);
+			else
+				this.open( nameId, optionName);
 		}
 
-		private String findAbbreviatedName( final String optionName) {
-			final Set< String> candidates = new TreeSet<>();
-			for( final String candidate: this.optionDictionary.keySet())
-				if( candidate.startsWith( optionName))
-					candidates.add( candidate);
+		private int findAbbreviatedName( final String arg, final int nameEnd) {
+			final List< String> candidates = this.optionIndex.findByPrefix( arg, 0, nameEnd);
 			if( candidates.isEmpty()) {
-				this.errors.add( new UnknownOptionException( optionName));
-				return optionName;
+				this.addError( ErrorKind.UNKNOWN_OPTION, arg.substring( 0, nameEnd));
+				return -1;
 			}
 			if( candidates.size() > 1) {
-				this.errors.add( new AmbiguousOptionNameException( optionName));
-				return optionName;
+				this.addError( ErrorKind.AMBIGUOUS_OPTION_NAME, arg.substring( 0, nameEnd));
+				return -1;
 			}
-			return candidates.iterator().next();
+			return this.optionIndex.find( candidates.get( 0));
 		}
 	}
 }
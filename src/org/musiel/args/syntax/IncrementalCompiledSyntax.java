@@ -0,0 +1,65 @@
+/*
+ * Copyright 2014 Bagana <bagana@musiel.org>
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License. You 
+ * may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS, 
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing 
+ * permissions and limitations under the License.
+ */
+package org.musiel.args.syntax;
+
+import java.util.Iterator;
+
+import org.musiel.args.syntax.Syntax.SyntaxResult;
+
+/**
+ * A {@link CompiledSyntax} that hands operands over as soon as it finds them, so that they can be consumed while the parsing goes on.
+ * Parsers use it where available, and add the operands of a finished result otherwise.
+ * 
+ * @author Bagana
+ */
+public interface IncrementalCompiledSyntax extends CompiledSyntax {
+
+	/**
+	 * Takes operands one by one, as a syntax finds them.
+	 * 
+	 * @author Bagana
+	 */
+	public static interface OperandSink {
+
+		/**
+		 * Takes an operand, or refuses it, which stops a fail-fast parsing (see {@link CompiledSyntax#isFailFast()}) there. Otherwise,
+		 * the parsing goes on, and the operand is kept in the result either way.
+		 * 
+		 * @param operand
+		 * @return <code>false</code> if the operand is refused
+		 */
+		public boolean offer( String operand);
+	}
+
+	/**
+	 * Parses a range of an argument array like {@link #parse(String[], int, int)}, but also offers each operand to the given sink as soon
+	 * as it is recognized. This lets the operands be consumed incrementally, for example, matched against an operand pattern.
+	 * 
+	 * @param args
+	 * @param offset
+	 * @param length
+	 * @param operandSink
+	 * @return
+	 */
+	public SyntaxResult parse( String[] args, int offset, int length, OperandSink operandSink);
+
+	/**
+	 * Parses arguments taken from an iterator like {@link #parse(Iterator)}, but also offers each operand to the given sink as soon as it
+	 * is recognized, see {@link #parse(String[], int, int, OperandSink)}.
+	 * 
+	 * @param args
+	 * @param operandSink
+	 * @return
+	 */
+	public SyntaxResult parse( Iterator< String> args, OperandSink operandSink);
+}
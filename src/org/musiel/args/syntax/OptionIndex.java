@@ -0,0 +1,363 @@
+/*
+ * Copyright 2014 Bagana <bagana@musiel.org>
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License. You 
+ * may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS, 
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing 
+ * permissions and limitations under the License.
+ */
+package org.musiel.args.syntax;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.musiel.args.Option;
+
+/**
+ * An immutable dictionary from option names to {@link Option}s, built once for an option set and shared by every parse against it.
+ * 
+ * <p>
+ * Options and names are numbered densely in the iteration order of the option set (and of {@link Option#getNames()}), the numbers are
+ * referred to as option ids and name ids. A name that is a hyphen followed by one ASCII character is resolved through a 128-slot table
+ * indexed by that character, every other name through an open-addressing hash table. Both lookups accept a character range of a string,
+ * so a name never needs to be cut out of an argument to be looked up.
+ * </p>
+ * 
+ * <p>
+ * For prefix lookups (like GNU long option abbreviation), the names are also sorted and arranged in a compressed prefix trie, whose nodes
+ * know the range of sorted names beneath them. Finding all names with a given prefix thus costs time proportional to the length of the
+ * prefix, no matter how many names there are.
+ * </p>
+ * 
+ * @author Bagana
+ */
+public final class OptionIndex {
+
+	private final Set< Option> options;
+	private final Option[] optionsById;
+	private final String[] names;
+	private final int[] nameOptionIds;
+
+	// bit sets indexed by option id
+	private final long[] requiredBits;
+	private final long[] nonRepeatableBits;
+	private final long[] argumentAcceptedBits;
+	private final long[] argumentRequiredBits;
+
+	// name ids of "-c" names indexed by c, -1 for none
+	private final int[] shortTable = new int[ 128];
+	// name ids of other names, open addressing with linear probing, -1 for an empty slot
+	private final int[] longTable;
+	private final int[] nameHashes;
+
+	// name ids in the lexicographical order of the names
+	private final int[] sortedNameIds;
+	// compressed trie over the sorted names, node 0 is the root. a node covers sorted names [low, high), which share the first depth
+	// characters, the edge into a node is labeled with characters [depth of parent, depth of node) of any of those names
+	private final int[] nodeLow;
+	private final int[] nodeHigh;
+	private final int[] nodeDepth;
+	private final int[] nodeFirstChild;
+	private final int[] nodeNextSibling;
+	private int nodeCount = 0;
+
+	/**
+	 * @param options
+	 * @throws IllegalArgumentException
+	 *             if a name is used by more than one option
+	 */
+	public OptionIndex( final Set< Option> options) throws IllegalArgumentException {
+		this.options = Collections.unmodifiableSet( new LinkedHashSet<>( options));
+		this.optionsById = this.options.toArray( new Option[ this.options.size()]);
+
+		this.requiredBits = new long[ this.getWordCount()];
+		this.nonRepeatableBits = new long[ this.getWordCount()];
+		this.argumentAcceptedBits = new long[ this.getWordCount()];
+		this.argumentRequiredBits = new long[ this.getWordCount()];
+		for( int optionId = 0; optionId < this.optionsById.length; ++optionId) {
+			final Option option = this.optionsById[ optionId];
+			if( option.isRequired())
+				this.requiredBits[ optionId >>> 6] |= 1L << optionId;
+			if( !option.isRepeatable())
+				this.nonRepeatableBits[ optionId >>> 6] |= 1L << optionId;
+			if( option.getArgumentPolicy().isAccepted())
+				this.argumentAcceptedBits[ optionId >>> 6] |= 1L << optionId;
+			if( option.getArgumentPolicy().isRequired())
+				this.argumentRequiredBits[ optionId >>> 6] |= 1L << optionId;
+		}
+
+		int nameCount = 0;
+		for( final Option option: this.optionsById)
+			nameCount += option.getNames().size();
+		this.names = new String[ nameCount];
+		this.nameOptionIds = new int[ nameCount];
+		this.nameHashes = new int[ nameCount];
+		this.longTable = new int[ Integer.highestOneBit( Math.max( nameCount * 2 - 1, 1)) << 1]; // at least half empty
+		Arrays.fill( this.shortTable, -1);
+		Arrays.fill( this.longTable, -1);
+
+		int nameId = 0;
+		for( int optionId = 0; optionId < this.optionsById.length; ++optionId)
+			for( final String name: this.optionsById[ optionId].getNames()) {
+				if( this.find( name) >= 0)
+					throw new IllegalArgumentException( "duplicate name: " + name);
+				this.names[ nameId] = name;
+				this.nameOptionIds[ nameId] = optionId;
+				this.nameHashes[ nameId] = OptionIndex.hash( name, 0, name.length());
+				if( OptionIndex.isShortName( name, 0, name.length()))
+					this.shortTable[ name.charAt( 1)] = nameId;
+				else {
+					int slot = this.nameHashes[ nameId] & this.longTable.length - 1;
+					while( this.longTable[ slot] >= 0)
+						slot = slot + 1 & this.longTable.length - 1;
+					this.longTable[ slot] = nameId;
+				}
+				++nameId;
+			}
+
+		final Integer[] sortedNameIds = new Integer[ nameCount];
+		for( int index = 0; index < nameCount; ++index)
+			sortedNameIds[ index] = Integer.valueOf( index);
+		Arrays.sort( sortedNameIds, new Comparator< Integer>() {
+
+			@ Override
+			public int compare( final Integer nameId1, final Integer nameId2) {
+				return OptionIndex.this.names[ nameId1.intValue()].compareTo( OptionIndex.this.names[ nameId2.intValue()]);
+			}
+		});
+		this.sortedNameIds = new int[ nameCount];
+		for( int index = 0; index < nameCount; ++index)
+			this.sortedNameIds[ index] = sortedNameIds[ index].intValue();
+		this.nodeLow = new int[ nameCount * 2];
+		this.nodeHigh = new int[ nameCount * 2];
+		this.nodeDepth = new int[ nameCount * 2];
+		this.nodeFirstChild = new int[ nameCount * 2];
+		this.nodeNextSibling = new int[ nameCount * 2];
+		if( nameCount > 0)
+			this.buildTrie( 0, nameCount, 0);
+	}
+
+	private String sortedName( final int index) {
+		return this.names[ this.sortedNameIds[ index]];
+	}
+
+	// names in [low, high) are known to share their first parentDepth characters
+	private int buildTrie( final int low, final int high, final int parentDepth) {
+		final int node = this.nodeCount++;
+		final String first = this.sortedName( low);
+		final String last = this.sortedName( high - 1);
+		int depth = parentDepth;
+		while( depth < first.length() && depth < last.length() && first.charAt( depth) == last.charAt( depth))
+			++depth;
+		this.nodeLow[ node] = low;
+		this.nodeHigh[ node] = high;
+		this.nodeDepth[ node] = depth;
+		this.nodeFirstChild[ node] = -1;
+		this.nodeNextSibling[ node] = -1;
+
+		// a name ending exactly here sorts first and gets no child, the rest are grouped by their next character
+		int previousChild = -1;
+		for( int from = first.length() == depth? low + 1: low, to; from < high; from = to) {
+			final char next = this.sortedName( from).charAt( depth);
+			to = from + 1;
+			while( to < high && this.sortedName( to).charAt( depth) == next)
+				++to;
+			final int child = this.buildTrie( from, to, depth);
+			if( previousChild < 0)
+				this.nodeFirstChild[ node] = child;
+			else
+				this.nodeNextSibling[ previousChild] = child;
+			previousChild = child;
+		}
+		return node;
+	}
+
+	private static boolean isShortName( final String chars, final int start, final int end) {
+		return end - start == 2 && chars.charAt( start) == '-' && chars.charAt( start + 1) < 128;
+	}
+
+	private static int hash( final String chars, final int start, final int end) {
+		int hash = 0;
+		for( int index = start; index < end; ++index)
+			hash = 31 * hash + chars.charAt( index);
+		return hash ^ hash >>> 16;
+	}
+
+	/**
+	 * Returns the options, in the order of their ids.
+	 * 
+	 * @return
+	 */
+	public Set< Option> getOptions() {
+		return this.options;
+	}
+
+	public int getOptionCount() {
+		return this.optionsById.length;
+	}
+
+	public int getNameCount() {
+		return this.names.length;
+	}
+
+	public Option getOption( final int optionId) {
+		return this.optionsById[ optionId];
+	}
+
+	public String getName( final int nameId) {
+		return this.names[ nameId];
+	}
+
+	public int getOptionId( final int nameId) {
+		return this.nameOptionIds[ nameId];
+	}
+
+	/**
+	 * Returns the number of 64-bit words in a bit set indexed by option id.
+	 * 
+	 * @return
+	 */
+	public int getWordCount() {
+		return this.optionsById.length + 63 >>> 6;
+	}
+
+	/**
+	 * Returns a word of the bit set of required options, that is, the options with ids from <code>word * 64</code> to
+	 * <code>word * 64 + 63</code>, each as a bit from the lowest to the highest.
+	 * 
+	 * @param word
+	 * @return
+	 */
+	public long getRequiredBits( final int word) {
+		return this.requiredBits[ word];
+	}
+
+	public boolean isRequired( final int optionId) {
+		return ( this.requiredBits[ optionId >>> 6] & 1L << optionId) != 0;
+	}
+
+	public boolean isRepeatable( final int optionId) {
+		return ( this.nonRepeatableBits[ optionId >>> 6] & 1L << optionId) == 0;
+	}
+
+	public boolean isArgumentAccepted( final int optionId) {
+		return ( this.argumentAcceptedBits[ optionId >>> 6] & 1L << optionId) != 0;
+	}
+
+	public boolean isArgumentRequired( final int optionId) {
+		return ( this.argumentRequiredBits[ optionId >>> 6] & 1L << optionId) != 0;
+	}
+
+	/**
+	 * Returns the id of a name, or -1 if the name is unknown.
+	 * 
+	 * @param name
+	 * @return
+	 */
+	public int find( final String name) {
+		return this.find( name, 0, name.length());
+	}
+
+	/**
+	 * Returns the id of the name consisting of a hyphen and the specified character, or -1 if the name is unknown.
+	 * 
+	 * @param character
+	 * @return
+	 */
+	public int findShort( final char character) {
+		return character < 128? this.shortTable[ character]: this.find( "-" + character);
+	}
+
+	/**
+	 * Returns the id of the name represented by <code>chars.substring( start, end)</code>, or -1 if the name is unknown.
+	 * 
+	 * @param chars
+	 * @param start
+	 * @param end
+	 * @return
+	 */
+	public int find( final String chars, final int start, final int end) {
+		if( OptionIndex.isShortName( chars, start, end))
+			return this.shortTable[ chars.charAt( start + 1)];
+		final int hash = OptionIndex.hash( chars, start, end);
+		for( int slot = hash & this.longTable.length - 1;; slot = slot + 1 & this.longTable.length - 1) {
+			final int nameId = this.longTable[ slot];
+			if( nameId < 0)
+				return -1;
+			if( this.nameHashes[ nameId] == hash && this.names[ nameId].length() == end - start
+					&& this.names[ nameId].regionMatches( 0, chars, start, end - start))
+				return nameId;
+		}
+	}
+
+	/**
+	 * Returns all names starting with <code>chars.substring( start, end)</code>, in lexicographical order. The list is a view of the
+	 * index, no name is examined beyond the length of the prefix.
+	 * 
+	 * @param chars
+	 * @param start
+	 * @param end
+	 * @return
+	 */
+	public List< String> findByPrefix( final String chars, final int start, final int end) {
+		final int node = this.findTrieNode( chars, start, end);
+		if( node < 0)
+			return Collections.emptyList();
+		final int low = this.nodeLow[ node];
+		final int size = this.nodeHigh[ node] - low;
+		return new AbstractList< String>() {
+
+			@ Override
+			public String get( final int index) {
+				if( index < 0 || index >= size)
+					throw new IndexOutOfBoundsException( String.valueOf( index));
+				return OptionIndex.this.sortedName( low + index);
+			}
+
+			@ Override
+			public int size() {
+				return size;
+			}
+		};
+	}
+
+	private int findTrieNode( final String chars, final int start, final int end) {
+		if( this.nodeCount == 0)
+			return -1;
+		final int length = end - start;
+		for( int node = 0, matched = 0;;) {
+			final String label = this.sortedName( this.nodeLow[ node]);
+			for( final int limit = Math.min( length, this.nodeDepth[ node]); matched < limit; ++matched)
+				if( label.charAt( matched) != chars.charAt( start + matched))
+					return -1;
+			if( length <= this.nodeDepth[ node])
+				return node;
+			final char next = chars.charAt( start + matched);
+			for( node = this.nodeFirstChild[ node]; node >= 0; node = this.nodeNextSibling[ node])
+				if( this.sortedName( this.nodeLow[ node]).charAt( matched) == next)
+					break;
+			if( node < 0)
+				return -1;
+		}
+	}
+
+	/**
+	 * Returns the option with the specified name, or <code>null</code> if the name is unknown.
+	 * 
+	 * @param name
+	 * @return
+	 */
+	public Option get( final String name) {
+		final int nameId = this.find( name);
+		return nameId < 0? null: this.optionsById[ this.nameOptionIds[ nameId]];
+	}
+}
@@ -12,6 +12,7 @@
  */
 package org.musiel.args.syntax;
 
+import java.util.Iterator;
 import java.util.Set;
 import java.util.regex.Pattern;
 
@@ -42,9 +43,27 @@ import org.musiel.args.Option;
  * disabled by {@link #setLateOptionsAllowed(boolean)}.
  * </p>
  * 
+ * <p>
+ * With {@link #setFailFast(boolean)}, parsing stops at the first error, and the result holds that single error.
+ * </p>
+ * 
  * @author Bagana
  */
-public class PosixSyntax implements Syntax {
+public class PosixSyntax implements CompilableSyntax {
+
+	private int modificationCount = 0;
+
+	@ Override
+	public int getModificationCount() {
+		return this.modificationCount;
+	}
+
+	/**
+	 * Called by every setter of the configuration, see {@link #getModificationCount()}.
+	 */
+	protected void modified() {
+		++this.modificationCount;
+	}
 
 	private boolean optionalArgumentsAllowed = false;
 	private boolean jointArgumentsAllowed = false;
@@ -59,6 +78,7 @@ public class PosixSyntax implements Syntax {
 
 	public PosixSyntax setOptionalArgumentsAllowed( final boolean optionalArgumentsAllowed) {
 		this.optionalArgumentsAllowed = optionalArgumentsAllowed;
+		this.modified();
 		if( optionalArgumentsAllowed)
 			this.setJointArgumentsAllowed( true);
 		return this;
@@ -66,6 +86,7 @@ public class PosixSyntax implements Syntax {
 
 	public PosixSyntax setJointArgumentsAllowed( final boolean jointArgumentAllowed) {
 		this.jointArgumentsAllowed = jointArgumentAllowed;
+		this.modified();
 		if( !jointArgumentAllowed)
 			this.setOptionalArgumentsAllowed( false);
 		return this;
@@ -79,6 +100,19 @@ public class PosixSyntax implements Syntax {
 
 	public PosixSyntax setLateOptionsAllowed( final boolean lateOptionsAllowed) {
 		this.lateOptionsAllowed = lateOptionsAllowed;
+		this.modified();
+		return this;
+	}
+
+	private boolean failFast = false;
+
+	public boolean isFailFast() {
+		return this.failFast;
+	}
+
+	public PosixSyntax setFailFast( final boolean failFast) {
+		this.failFast = failFast;
+		this.modified();
 		return this;
 	}
 
@@ -102,47 +136,187 @@ public class PosixSyntax implements Syntax {
 	}
 
 	@ Override
-	public SyntaxResult parse( final Set< Option> options, final String... args) {
+	public OrderedSyntaxResult parse( final Set< Option> options, final String... args) {
+		// through the factory of the earlier versions, so that overriding it still takes effect here
 		final PosixMachine machine = this.newMachine( options);
-		for( final String arg: args)
-			machine.feed( arg);
+		for( int index = 0; index < args.length && !machine.isAborted(); ++index)
+			machine.feed( args[ index]);
 		machine.build();
 		return machine;
 	}
 
+	/**
+	 * @param options
+	 * @return a machine building a result, with the options compiled
+	 * @deprecated only called by {@link #parse(Set, String...)}, while a {@link CompiledPosixSyntax} creates its machines by
+	 *             {@link CompiledPosixSyntax#newMachine(SyntaxListener, IncrementalCompiledSyntax.OperandSink)}
+	 */
+	@ Deprecated
 	protected PosixMachine newMachine( final Set< Option> options) {
 		return new PosixMachine( options);
 	}
 
-	protected class PosixMachine extends AbstractParseResult {
+	@ Override
+	public CompiledSyntax compile( final Set< Option> options) throws IllegalArgumentException {
+		return new CompiledPosixSyntax( options);
+	}
+
+	/**
+	 * A {@link CompiledSyntax} holding a snapshot of the configuration of the enclosing {@link PosixSyntax}, and the option dictionary.
+	 * 
+	 * @author Bagana
+	 */
+	protected class CompiledPosixSyntax implements IncrementalCompiledSyntax {
 
-		protected PosixMachine( final Set< Option> options) {
-			super( options);
+		protected final OptionIndex optionIndex;
+
+		protected final boolean optionalArgumentsAllowed = PosixSyntax.this.isOptionalArgumentsAllowed();
+		protected final boolean jointArgumentsAllowed = PosixSyntax.this.isJointArgumentsAllowed();
+		protected final boolean lateOptionsAllowed = PosixSyntax.this.isLateOptionsAllowed();
+		protected final boolean failFast = PosixSyntax.this.isFailFast();
+
+		protected CompiledPosixSyntax( final Set< Option> options) throws IllegalArgumentException {
 			for( final Option option: options)
 				PosixSyntax.this.validate( option);
+			this.optionIndex = new OptionIndex( options);
+		}
+
+		@ Override
+		public Set< Option> getOptions() {
+			return this.optionIndex.getOptions();
+		}
+
+		@ Override
+		public boolean isFailFast() {
+			return this.failFast;
+		}
+
+		@ Override
+		public OrderedSyntaxResult parse( final String... args) {
+			return this.parse( args, 0, args.length);
+		}
+
+		@ Override
+		public OrderedSyntaxResult parse( final String[] args, final int offset, final int length) {
+			return this.parse( args, offset, length, null);
+		}
+
+		@ Override
+		public OrderedSyntaxResult parse( final String[] args, final int offset, final int length, final OperandSink operandSink) {
+			final PosixMachine machine = this.newMachine( null, operandSink);
+			for( int index = offset; index < offset + length && !machine.isAborted(); ++index)
+				machine.feed( args[ index]);
+			machine.build();
+			return machine;
+		}
+
+		@ Override
+		public OrderedSyntaxResult parse( final Iterator< String> args) {
+			return this.parse( args, ( OperandSink) null);
+		}
+
+		@ Override
+		public OrderedSyntaxResult parse( final Iterator< String> args, final OperandSink operandSink) {
+			final PosixMachine machine = this.newMachine( null, operandSink);
+			while( !machine.isAborted() && args.hasNext())
+				machine.feed( args.next());
+			machine.build();
+			return machine;
+		}
+
+		@ Override
+		public void parse( final Iterator< String> args, final SyntaxListener listener) {
+			final PosixMachine machine = this.newMachine( listener, null);
+			while( !machine.isAborted() && args.hasNext())
+				machine.feed( args.next());
+			machine.build();
+		}
+
+		/**
+		 * @param listener
+		 *            <code>null</code> to have the machine build a result
+		 * @return
+		 */
+		protected PosixMachine newMachine( final SyntaxListener listener) {
+			return this.newMachine( listener, null);
+		}
+
+		/**
+		 * @param listener
+		 *            <code>null</code> to have the machine build a result
+		 * @param operandSink
+		 *            where the operands are offered as soon as they are found, <code>null</code> for none
+		 * @return
+		 */
+		protected PosixMachine newMachine( final SyntaxListener listener, final OperandSink operandSink) {
+			return new PosixMachine( this, listener, operandSink);
+		}
+	}
+
+	/**
+	 * Walks every argument with an index cursor. Option names are taken from the {@link OptionIndex} and option-arguments are recorded as
+	 * ranges of the arguments, so no string is created for a well-formed argument array.
+	 * 
+	 * @author Bagana
+	 */
+	protected class PosixMachine extends AbstractParseResult {
+
+		protected final CompiledPosixSyntax compiledSyntax;
+
+		/**
+		 * @param options
+		 * @throws IllegalArgumentException
+		 *             if any of the options is not valid for this syntax
+		 * @deprecated compiles the options for every machine, use
+		 *             {@link #PosixMachine(CompiledPosixSyntax, SyntaxListener, IncrementalCompiledSyntax.OperandSink)} instead
+		 */
+		@ Deprecated
+		protected PosixMachine( final Set< Option> options) throws IllegalArgumentException {
+			// every compiled syntax of this class is a CompiledPosixSyntax
+			this( ( CompiledPosixSyntax) PosixSyntax.this.compile( options), null, null);
+		}
+
+		/**
+		 * @param compiledSyntax
+		 *            whose options and configuration are used
+		 * @param listener
+		 *            <code>null</code> to have the machine build a result
+		 * @param operandSink
+		 *            where the operands are offered as soon as they are found, <code>null</code> for none
+		 */
+		protected PosixMachine( final CompiledPosixSyntax compiledSyntax, final SyntaxListener listener,
+				final IncrementalCompiledSyntax.OperandSink operandSink) {
+			super( compiledSyntax.optionIndex, listener, operandSink, compiledSyntax.failFast);
+			this.compiledSyntax = compiledSyntax;
 		}
 
 		private boolean optionTerminatedByDoubleHyphen = false;
-		// the name of a found-but-not-pushed option. openOption is null and non-null when the name is unknown and known, respectively.
+		// the name of a found-but-not-pushed option. openNameId is negative when the name is unknown, and its name id otherwise.
 		// if it is a known option, it must require an argument, or it should have been pushed in the first place.
 		// if it is an unknown option, a hyphen-led arg pushes it without argument, other args are considered its argument.
 		protected String openOptionName = null;
+		protected int openNameId = -1;
+		/**
+		 * @deprecated the option named by {@link #openNameId}, kept up to date for subclasses reading it, but never read by this class
+		 */
+		@ Deprecated
 		protected Option openOption = null;
 
 		private void feed( final String arg) {
 			if( this.optionTerminatedByDoubleHyphen) {
-				this.operands.add( arg);
+				this.addOperand( arg);
 				return;
 			}
 
 			if( this.openOptionName != null) {
-				if( this.openOption != null || !arg.startsWith( "-") || arg.equals( "-")) {
-					this.push( this.openOptionName, arg);
+				if( this.openNameId >= 0 || !arg.startsWith( "-") || arg.equals( "-")) {
+					this.push( this.openNameId, this.openOptionName, arg);
 					this.openOptionName = null;
+					this.openNameId = -1;
 					this.openOption = null;
 					return;
 				}
-				this.push( this.openOptionName, null);
+				this.push( this.openNameId, this.openOptionName, null);
 				this.openOptionName = null;
 			}
 
@@ -152,49 +326,87 @@ public class PosixSyntax implements Syntax {
 			}
 
 			if( !arg.startsWith( "-") || arg.equals( "-")) {
-				this.operands.add( arg);
+				this.addOperand( arg);
 				return;
 			}
 
 			this.handleOption( arg);
 		}
 
+		/**
+		 * Leaves an option found but not pushed, waiting for its option-argument in the next argument.
+		 * 
+		 * @param nameId
+		 *            negative for an unknown option
+		 * @param optionName
+		 */
+		protected void open( final int nameId, final String optionName) {
+			this.openOptionName = optionName;
+			this.openNameId = nameId;
+			this.openOption = this.getOption( nameId);
+		}
+
+		protected Option getOption( final int nameId) {
+			return nameId < 0? null: this.optionIndex.getOption( this.optionIndex.getOptionId( nameId));
+		}
+
 		// specially prepared for GNU and those support different types of options...
 		protected void handleOption( final String arg) {
-			this.handleShortOption( arg, arg);
+			this.handleShortOptions( arg, 1);
 		}
 
+		/**
+		 * @param arg
+		 *            the cluster of short options, from its hyphen on
+		 * @param originalWholeArg
+		 *            not used
+		 * @deprecated handles the cluster by {@link #handleShortOptions(String, int)}, and is no longer called by this class, so
+		 *             overriding it takes no effect
+		 */
+		@ Deprecated
 		protected void handleShortOption( final String arg, final String originalWholeArg) {
-			final String optionName = arg.substring( 0, 2); // long enough always
-			final Option option = this.optionDictionary.get( optionName);
-			if( option == null)
-				this.errors.add( new UnknownOptionException( optionName));
-			if( !this.operands.isEmpty() && !PosixSyntax.this.isLateOptionsAllowed())
-				this.errors.add( new LateOptionException( optionName));
-
-			// nothing is following the option name in the same arg
-			if( arg.length() == 2) {
-				if( option == null || option.getArgumentPolicy().isRequired()) {
-					this.openOptionName = optionName;
-					this.openOption = option;
-				} else
-					this.push( optionName, null);
-				return;
-			}
+			this.handleShortOptions( arg, 1);
+		}
 
-			if( option != null && option.getArgumentPolicy().isAccepted() && PosixSyntax.this.isJointArgumentsAllowed()) {
-				this.push( optionName, arg.substring( 2));
-				return;
-			}
+		/**
+		 * Handles a cluster of short options, like "-abc".
+		 * 
+		 * @param arg
+		 * @param position
+		 *            index of the character (following the hyphen) that names the first option in the cluster
+		 */
+		protected void handleShortOptions( final String arg, final int position) {
+			for( int cursor = position; cursor < arg.length(); ++cursor) {
+				final int nameId = this.optionIndex.findShort( arg.charAt( cursor));
+				final Option option = this.getOption( nameId);
+				final String optionName = nameId < 0? "-" + arg.charAt( cursor): this.optionIndex.getName( nameId);
+				if( option == null)
+					this.addError( ErrorKind.UNKNOWN_OPTION, optionName);
+				if( this.isOperandFound() && !this.compiledSyntax.lateOptionsAllowed)
+					this.addError( ErrorKind.LATE_OPTION, optionName);
+
+				// nothing is following the option name in the same arg
+				if( cursor == arg.length() - 1) {
+					if( option == null || option.getArgumentPolicy().isRequired())
+						this.open( nameId, optionName);
+					else
+						this.push( nameId, optionName, null);
+					return;
+				}
 
-			this.push( optionName, null);
-			this.handleShortOption( "-" + arg.substring( 2), originalWholeArg); // tail recursive, although VM's do not optimize
+				if( option != null && option.getArgumentPolicy().isAccepted() && this.compiledSyntax.jointArgumentsAllowed) {
+					this.push( nameId, optionName, arg, cursor + 1, arg.length());
+					return;
+				}
+
+				this.push( nameId, optionName, null);
+			}
 		}
 
 		@ Override
 		public void build() {
-			if( this.openOptionName != null)
-				this.push( this.openOptionName, null);
+			if( this.openOptionName != null && !this.isAborted())
+				this.push( this.openNameId, this.openOptionName, null);
 			super.build();
 		}
 	}
@@ -0,0 +1,75 @@
+/*
+ * Copyright 2014 Bagana <bagana@musiel.org>
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License. You 
+ * may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS, 
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing 
+ * permissions and limitations under the License.
+ */
+package org.musiel.args.syntax;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.RandomAccess;
+
+/**
+ * A growable, read-only (from outside of this package) list of strings, each element of which is either given directly, or as a range of
+ * characters of another string (typically a command line argument). A range is only cut out when the element is requested, and never if
+ * it covers the whole string.
+ * 
+ * @author Bagana
+ */
+final class SliceList extends AbstractList< String> implements RandomAccess {
+
+	private String[] sources = new String[ 2];
+	// starts[ index] < 0 means the source itself is the element
+	private int[] starts = new int[ 2];
+	private int[] ends = new int[ 2];
+	private int size = 0;
+
+	void addString( final String string) {
+		this.addSlice( string, -1, -1);
+	}
+
+	void addSlice( final String source, final int start, final int end) {
+		if( this.size == this.sources.length) {
+			this.sources = Arrays.copyOf( this.sources, this.size * 2);
+			this.starts = Arrays.copyOf( this.starts, this.size * 2);
+			this.ends = Arrays.copyOf( this.ends, this.size * 2);
+		}
+		this.sources[ this.size] = source;
+		this.starts[ this.size] = start;
+		this.ends[ this.size] = end;
+		++this.size;
+	}
+
+	/**
+	 * Equivalent to <code>get( index) == null</code>, without cutting out the element.
+	 * 
+	 * @param index
+	 * @return
+	 */
+	boolean isNull( final int index) {
+		if( index < 0 || index >= this.size)
+			throw new IndexOutOfBoundsException( String.valueOf( index));
+		return this.sources[ index] == null;
+	}
+
+	@ Override
+	public String get( final int index) {
+		if( index < 0 || index >= this.size)
+			throw new IndexOutOfBoundsException( String.valueOf( index));
+		final String source = this.sources[ index];
+		final int start = this.starts[ index];
+		return start < 0? source: source.substring( start, this.ends[ index]);
+	}
+
+	@ Override
+	public int size() {
+		return this.size;
+	}
+}
@@ -118,4 +118,63 @@ public interface Syntax {
 		 */
 		public List< String> getOperands();
 	}
+
+	/**
+	 * A {@link SyntaxResult} that also keeps the order of occurrences across options, and counts them without allocating.
+	 * 
+	 * <p>
+	 * Results of {@link PosixSyntax} and {@link GnuSyntax} are of this kind. A parser falls back to the plain {@link SyntaxResult}
+	 * methods for a result that is not.
+	 * </p>
+	 * 
+	 * @author Bagana
+	 */
+	public static interface OrderedSyntaxResult extends SyntaxResult {
+
+		/**
+		 * Returns how many times an option occurred, which equals to the size of {@link #getNames(String)}, but is answered without
+		 * allocating anything, for example, to count a verbosity flag given as <code>-vvv</code>.
+		 * 
+		 * @param option
+		 * @return
+		 */
+		public int getOccurrenceCount( String option);
+
+		/**
+		 * Returns all option occurrences, known or not, in the order they occurred. This is the only way to know the relative order of
+		 * occurrences of different options.
+		 * 
+		 * @return
+		 */
+		public List< Occurrence> getOccurrences();
+
+		/**
+		 * A single occurrence of an option.
+		 * 
+		 * @author Bagana
+		 */
+		public static interface Occurrence {
+
+			/**
+			 * Returns the option that occurred, or <code>null</code> if the name is undefined.
+			 * 
+			 * @return
+			 */
+			public Option getOption();
+
+			/**
+			 * Returns the option name used.
+			 * 
+			 * @return
+			 */
+			public String getName();
+
+			/**
+			 * Returns the option-argument, or <code>null</code> if there is none.
+			 * 
+			 * @return
+			 */
+			public String getArgument();
+		}
+	}
 }
@@ -0,0 +1,66 @@
+/*
+ * Copyright 2014 Bagana <bagana@musiel.org>
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License. You 
+ * may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS, 
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing 
+ * permissions and limitations under the License.
+ */
+package org.musiel.args.syntax;
+
+import java.util.Iterator;
+
+import org.musiel.args.ArgumentException;
+import org.musiel.args.Option;
+import org.musiel.args.syntax.Syntax.SyntaxResult;
+
+/**
+ * Receives the parts of an argument array as a {@link CompiledSyntax} finds them, see
+ * {@link CompiledSyntax#parse(Iterator, SyntaxListener)}.
+ * 
+ * <p>
+ * Nothing is stored for a listener, so parsing takes the same memory no matter how many arguments there are. In return, validation that
+ * needs the whole argument array is reported late: a missing option is reported just before {@link #onEnd()}, and an error for a
+ * non-repeatable option is reported on its second occurrence. Errors thus may come in a different order than
+ * {@link SyntaxResult#getErrors()} has them.
+ * </p>
+ * 
+ * @author Bagana
+ */
+public interface SyntaxListener {
+
+	/**
+	 * Called for each option occurrence.
+	 * 
+	 * @param option
+	 *            <code>null</code> if the name is undefined (an error is reported as well)
+	 * @param name
+	 *            the option name used
+	 * @param argument
+	 *            the option-argument, or <code>null</code> if there is none
+	 */
+	public void onOption( Option option, String name, String argument);
+
+	/**
+	 * Called for each operand.
+	 * 
+	 * @param operand
+	 */
+	public void onOperand( String operand);
+
+	/**
+	 * Called for each error.
+	 * 
+	 * @param exception
+	 */
+	public void onError( ArgumentException exception);
+
+	/**
+	 * Called once, after everything else.
+	 */
+	public void onEnd();
+}
@@ -12,13 +12,25 @@
  */
 package org.musiel.args.generic;
 
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
 import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.ExpectedException;
+import org.musiel.args.ArgumentException;
 import org.musiel.args.ArgumentPolicy;
 import org.musiel.args.DefaultAccessor;
+import org.musiel.args.Parser;
 import org.musiel.args.Result;
 
 public abstract class AbstractParserTest {
@@ -78,4 +90,99 @@ public abstract class AbstractParserTest {
 		result = this.parser.parse( new String[]{ "-!!==", "-a", "file1", "wontsee", null}, 1, 2).getAccessor();
 		Assert.assertArrayEquals( new String[]{ "file1"}, result.getOperands().toArray());
 	}
+
+	@ Test
+	public void argumentFile() throws IOException {
+		final File file = File.createTempFile( "args", ".txt");
+		file.deleteOnExit();
+		try( final OutputStream output = new FileOutputStream( file)) {
+			output.write( "-a\r\n\n\"with \\\" quote\"\n'C:\\dir'\0\u00e9t\u00e9\0".getBytes( "UTF-8"));
+		}
+		this.parser.setArgumentFilesAllowed( true);
+		final Result< ? extends DefaultAccessor> result = this.parser.parse( "first", "@" + file.getPath(), "@@last");
+		Assert.assertTrue( result.getErrors().isEmpty());
+		Assert.assertTrue( result.getAccessor().isOccurred( "-a"));
+		Assert.assertArrayEquals( new String[]{ "first", "with \" quote", "C:\\dir", "\u00e9t\u00e9", "@last"}, result.getAccessor()
+				.getOperands().toArray());
+	}
+
+	@ Test
+	public void argumentFileErrors() throws IOException {
+		final File file = File.createTempFile( "args", ".txt");
+		file.deleteOnExit();
+		try( final OutputStream output = new FileOutputStream( file)) {
+			output.write( "operand\n\"open".getBytes( "UTF-8"));
+		}
+		this.parser.setArgumentFilesAllowed( true);
+		final Result< ? extends DefaultAccessor> result = this.parser.parse( "@" + file.getPath(), "@" + file.getPath() + ".missing");
+		Assert.assertArrayEquals( new String[]{ "operand"}, result.getAccessor().getOperands().toArray());
+		Assert.assertEquals( 2, result.getErrors().size());
+		for( final ArgumentException error: result.getErrors())
+			Assert.assertTrue( error instanceof ArgumentFileException);
+	}
+
+	@ Test
+	public void argumentFileDisallowed() {
+		Assert.assertArrayEquals( new String[]{ "@file"}, this.parser.parse( "@file").getAccessor().getOperands().toArray());
+	}
+
+	@ Test
+	public void parseAll() {
+		final List< String[]> argsList = new ArrayList<>();
+		for( int index = 0; index < 5000; ++index)
+			argsList.add( index % 3 == 0? new String[]{ "-a", String.valueOf( index)}: new String[]{ String.valueOf( index)});
+		for( final int parallelism: new int[]{ 4, 1}) {
+			this.parser.setParallelism( parallelism);
+			final List< ? extends Result< ? extends DefaultAccessor>> results = this.parser.parseAll( argsList);
+			Assert.assertEquals( argsList.size(), results.size());
+			for( int index = 0; index < results.size(); ++index) {
+				Assert.assertEquals( String.valueOf( index), results.get( index).getAccessor().getOperand());
+				Assert.assertEquals( index % 3 == 0, results.get( index).getAccessor().isOccurred( "-a"));
+			}
+		}
+	}
+
+	@ Test
+	public void frozen() {
+		this.parser.freeze();
+		Assert.assertTrue( this.parser.isFrozen());
+		this.exceptions.expect( IllegalStateException.class);
+		this.parser.newOption( "-b");
+	}
+
+	@ Test
+	public void frozenConcurrently() throws InterruptedException {
+		this.parser.newOption( false, true, ArgumentPolicy.REQUIRED, "-o", "--output");
+		final Parser< ? extends Result< ? extends DefaultAccessor>> frozen = this.parser.freeze();
+		final BlockingQueue< Result< ? extends DefaultAccessor>> shared = new LinkedBlockingQueue<>();
+		final AtomicInteger failures = new AtomicInteger();
+		final Thread[] threads = new Thread[ 16];
+		for( int thread = 0; thread < threads.length; ++thread) {
+			final int seed = thread;
+			threads[ thread] = new Thread() {
+
+				@ Override
+				public void run() {
+					for( int round = 0; round < 2000; ++round) {
+						final String value = seed + "/" + round;
+						final Result< ? extends DefaultAccessor> result =
+								frozen.parse( "--out=" + value, round % 2 == 0? "-a": "operand", "-o", value, "--");
+						shared.add( result);
+						// verifies a result parsed by another thread
+						final DefaultAccessor accessor = shared.remove().getAccessor();
+						final List< String> arguments = accessor.getArguments( "-o");
+						if( arguments.size() != 2 || !arguments.get( 0).equals( arguments.get( 1))
+								|| accessor.isOccurred( "-a") == accessor.getOperands().contains( "operand")
+								|| !accessor.getOperands( "undefined").isEmpty())
+							failures.incrementAndGet();
+					}
+				}
+			};
+		}
+		for( final Thread thread: threads)
+			thread.start();
+		for( final Thread thread: threads)
+			thread.join();
+		Assert.assertEquals( 0, failures.get());
+	}
 }
@@ -12,8 +12,26 @@
  */
 package org.musiel.args.generic;
 
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.musiel.args.ArgumentException;
+import org.musiel.args.ArgumentPolicy;
 import org.musiel.args.DefaultAccessor;
+import org.musiel.args.Option;
 import org.musiel.args.Result;
+import org.musiel.args.operand.OperandException;
+import org.musiel.args.syntax.GnuSyntax;
+import org.musiel.args.syntax.PosixSyntax;
+import org.musiel.args.syntax.Syntax;
 
 public class GenericParserTest extends AbstractParserTest {
 
@@ -21,4 +39,124 @@ public class GenericParserTest extends AbstractParserTest {
 	protected AbstractParser< ? extends Result< ? extends DefaultAccessor>> newParser() {
 		return new GenericParser();
 	}
+
+	@ Test
+	public void syntaxChangedBetweenParses() {
+		final PosixSyntax syntax = new PosixSyntax();
+		final GenericParser parser = new GenericParser( syntax);
+		parser.newOption( "-a");
+		Assert.assertEquals( 1, parser.parse( "x", "-a").getErrors().size());
+		syntax.setLateOptionsAllowed( true);
+		Assert.assertTrue( parser.parse( "x", "-a").getErrors().isEmpty());
+		Assert.assertEquals( 2, parser.parse( "-b", "-c").getErrors().size());
+		syntax.setFailFast( true);
+		Assert.assertEquals( 1, parser.parse( "-b", "-c").getErrors().size());
+
+		// a frozen parser keeps the configuration it is frozen with
+		parser.freeze();
+		syntax.setLateOptionsAllowed( false);
+		Assert.assertTrue( parser.parse( "x", "-a").getErrors().isEmpty());
+	}
+
+	@ Test
+	public void argumentFileFailFast() throws IOException {
+		final File file = File.createTempFile( "args", ".txt");
+		file.deleteOnExit();
+		try( final OutputStream output = new FileOutputStream( file)) {
+			output.write( "-z\n-a\noperand\n".getBytes( "UTF-8"));
+		}
+		final GenericParser parser = new GenericParser( new GnuSyntax().setFailFast( true));
+		parser.newOption( "-a");
+		parser.setArgumentFilesAllowed( true);
+		// open descriptors are counted where they can be
+		final File descriptors = new File( "/proc/self/fd");
+		final int before = descriptors.isDirectory()? descriptors.list().length: 0;
+		for( int round = 0; round < 64; ++round) {
+			final Result< ? extends DefaultAccessor> result = parser.parse( "@" + file.getPath());
+			Assert.assertEquals( 1, result.getErrors().size());
+			Assert.assertFalse( result.getAccessor().isOccurred( "-a"));
+		}
+		if( descriptors.isDirectory())
+			Assert.assertTrue( descriptors.list().length < before + 16);
+	}
+
+	@ Test
+	public void unreadableArgumentFileFailFast() {
+		final GenericParser parser = new GenericParser( new GnuSyntax().setFailFast( true));
+		parser.setArgumentFilesAllowed( true);
+		final Result< ? extends DefaultAccessor> result = parser.parse( "@" + new File( "no such file").getAbsolutePath(), "-z");
+		// the unknown option after the file is not reached
+		Assert.assertEquals( 1, result.getErrors().size());
+		final ArgumentException error = result.getErrors().iterator().next();
+		Assert.assertEquals( ArgumentFileException.Reason.UNREADABLE, ( ( ArgumentFileException) error).getReason());
+	}
+
+	@ Test
+	public void tooManyOperandsFailFast() {
+		final GenericParser parser = new GenericParser( new GnuSyntax().setFailFast( true));
+		parser.setOperandPattern( "FILE");
+		final Result< ? extends DefaultAccessor> result = parser.parse( "a", "b", "-z");
+		// the unknown option after the surplus operand is not reached
+		Assert.assertEquals( 1, result.getErrors().size());
+		final ArgumentException error = result.getErrors().iterator().next();
+		Assert.assertEquals( OperandException.Reason.TOO_MANY, ( ( OperandException) error).getReason());
+	}
+
+	@ Test
+	public void tooManyOperandsKept() {
+		final GenericParser parser = new GenericParser( new GnuSyntax());
+		parser.setOperandPattern( "A");
+		final Result< ? extends DefaultAccessor> result = parser.parse( "x", "y", "z");
+		Assert.assertEquals( 1, result.getErrors().size());
+		final ArgumentException error = result.getErrors().iterator().next();
+		Assert.assertEquals( OperandException.Reason.TOO_MANY, ( ( OperandException) error).getReason());
+		// the surplus operands are refused by the pattern, but not dropped from the result
+		Assert.assertEquals( Arrays.asList( "x", "y", "z"), result.getAccessor().getOperands());
+	}
+
+	@ Test
+	public void uncompilableSyntax() {
+		final Syntax posix = new PosixSyntax();
+		final GenericParser parser = new GenericParser( new Syntax() {
+
+			@ Override
+			public void validate( final Option option) throws IllegalArgumentException {
+				posix.validate( option);
+			}
+
+			@ Override
+			public SyntaxResult parse( final Set< Option> options, final String... args) {
+				final SyntaxResult result = posix.parse( options, args);
+				// a plain result, without the occurrence index of PosixSyntax
+				return new SyntaxResult() {
+
+					@ Override
+					public Collection< ? extends ArgumentException> getErrors() {
+						return result.getErrors();
+					}
+
+					@ Override
+					public List< String> getNames( final String option) {
+						return result.getNames( option);
+					}
+
+					@ Override
+					public List< String> getArguments( final String option) {
+						return result.getArguments( option);
+					}
+
+					@ Override
+					public List< String> getOperands() {
+						return result.getOperands();
+					}
+				};
+			}
+		});
+		parser.newOption( false, true, ArgumentPolicy.NONE, "-a");
+		parser.setOperandPattern( "FILE...");
+		final Result< ? extends DefaultAccessor> result = parser.parse( "-a", "-a", "x", "y");
+		Assert.assertTrue( result.getErrors().isEmpty());
+		Assert.assertEquals( 2, result.getAccessor().getOccurrences( "-a"));
+		Assert.assertEquals( Arrays.asList( "x", "y"), result.getAccessor().getOperands( "FILE"));
+	}
 }
@@ -12,8 +12,12 @@
  */
 package org.musiel.args.operand;
 
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
@@ -141,12 +145,150 @@ public class OperandPatternTest {
 		Assert.assertEquals( this.toList( "e1", "e2"), result.get( "E"));
 	}
 
+	@ Test
+	public void testAmbiguityOfLargePatterns() {
+		final StringBuilder pattern = new StringBuilder();
+		for( int index = 0; index < 60; ++index)
+			pattern.append( "[A").append( index).append( ' ');
+		for( int index = 0; index < 60; ++index)
+			pattern.append( ']');
+		Assert.assertFalse( OperandPattern.compile( pattern.toString()).isAmbiguous());
+
+		final String[][] example = OperandPattern.compile( pattern + " [B]...").findAmbiguityExample();
+		Assert.assertEquals( example[ 0].length, example[ 1].length);
+		Assert.assertFalse( Arrays.equals( example[ 0], example[ 1]));
+		Assert.assertEquals( 1, example[ 0].length);
+	}
+
+	@ Test
+	public void testInvalidPatterns() {
+		final String[] patterns = { "A $", "A ..", "[A B", "A )", "( A ]", "A |", "[ ] A", "... A"};
+		final String[] positions = { "2", "2", "4", "2", "4", "3", "2", "0"};
+		for( int index = 0; index < patterns.length; ++index)
+			try {
+				OperandPattern.compile( patterns[ index]);
+				Assert.fail( patterns[ index]);
+			} catch( final IllegalArgumentException exception) {
+				Assert.assertTrue( exception.getMessage(), exception.getMessage().contains( " at position " + positions[ index] + " "));
+			}
+	}
+
+	@ Test
+	public void testLongPattern() throws OperandException {
+		final StringBuilder pattern = new StringBuilder( "A0");
+		final String[] operands = new String[ 1000];
+		operands[ 0] = "a0";
+		for( int index = 1; index < 1000; ++index) {
+			pattern.append( " A").append( index);
+			operands[ index] = "a" + index;
+		}
+		final OperandPattern compiled = OperandPattern.compile( pattern + " [B]");
+		Assert.assertEquals( 1001, compiled.getNames().size());
+		Assert.assertEquals( this.toList( "a999"), compiled.match( operands).get( "A999"));
+	}
+
+	@ Test
+	public void testCompiledOnce() {
+		final OperandPattern pattern = OperandPattern.compile( OperandPatternTest.PATTERNS[ 3]);
+		Assert.assertSame( pattern, OperandPattern.compile( OperandPatternTest.PATTERNS[ 3]));
+		pattern.findAmbiguityExample()[ 0][ 0] = null;
+		Assert.assertNotNull( pattern.findAmbiguityExample()[ 0][ 0]);
+		Assert.assertTrue( pattern.isAbsencePossible( "B"));
+		Assert.assertFalse( pattern.isAbsencePossible( "A"));
+	}
+
+	@ Test
+	public void testIncrementalMatching() throws OperandException {
+		final OperandPattern.Matcher matcher = OperandPattern.compile( OperandPatternTest.PATTERNS[ 3]).newMatcher();
+		for( final String operand: new String[]{ "a", "b", "c", "d"}) {
+			Assert.assertTrue( matcher.offer( operand));
+			Assert.assertFalse( matcher.isTooMany());
+		}
+		Assert.assertEquals( this.toList( "c"), matcher.getResult().get( "C"));
+		Assert.assertFalse( matcher.offer( "e"));
+		Assert.assertTrue( matcher.isTooMany());
+		Assert.assertFalse( matcher.offer( "f"));
+		Assert.assertEquals( this.toList( "a", "b", "c", "d"), matcher);
+		try {
+			matcher.getResult();
+			Assert.fail();
+		} catch( final OperandException exception) {
+			Assert.assertEquals( Reason.TOO_MANY, exception.getReason());
+		}
+	}
+
+	@ Test
+	public void testMatchResult() throws OperandException {
+		final Map< String, List< String>> result =
+				OperandPattern.compile( OperandPatternTest.PATTERNS[ 5]).match( "a", "c1", "d1", "e1", "c2", "d2", "e2");
+		Assert.assertEquals( Arrays.asList( "A", "B", "C", "D", "E"), new ArrayList<>( result.keySet()));
+		Assert.assertTrue( result.get( "B").isEmpty());
+		Assert.assertNull( result.get( "F"));
+		Assert.assertEquals( this.toList( "d1", "d2"), result.get( "D"));
+		try {
+			result.get( "D").add( "d3");
+			Assert.fail();
+		} catch( final UnsupportedOperationException exception) {
+		}
+	}
+
+	@ Test
+	public void testMatchingManyOperands() throws OperandException {
+		final String[] operands = new String[ 100000];
+		for( int index = 0; index < operands.length; ++index)
+			operands[ index] = String.valueOf( index);
+
+		Map< String, List< String>> result = OperandPattern.compile( OperandPatternTest.PATTERNS[ 8]).match( operands);
+		Assert.assertEquals( this.toList( "0"), result.get( "A"));
+		Assert.assertEquals( operands.length - 2, result.get( "B").size());
+		Assert.assertEquals( "1", result.get( "B").get( 0));
+		Assert.assertEquals( this.toList( "99999"), result.get( "C"));
+
+		result = OperandPattern.compile( OperandPatternTest.PATTERNS[ 4]).match( operands);
+		Assert.assertEquals( this.toList( "0"), result.get( "A"));
+		Assert.assertTrue( result.get( "B").isEmpty());
+		Assert.assertEquals( 33333, result.get( "E").size());
+		Assert.assertEquals( "99999", result.get( "E").get( 33332));
+
+		result = OperandPattern.compile( OperandPatternTest.PATTERNS[ 4]).match( Arrays.copyOf( operands, 99998));
+		Assert.assertEquals( this.toList( "1"), result.get( "B"));
+		Assert.assertEquals( 33332, result.get( "E").size());
+		Assert.assertEquals( "99997", result.get( "E").get( 33331));
+	}
+
 	private List< String> toList( final String... strings) {
 		final List< String> list = new LinkedList<>();
 		Collections.addAll( list, strings);
 		return list;
 	}
 
+	@ Test
+	public void testSequenceIteration() {
+		final Iterator< String[]> iterator = OperandPattern.compile( OperandPatternTest.PATTERNS[ 3]).iterateSequences( 3);
+		Assert.assertArrayEquals( new String[]{ "A", "B", "D"}, iterator.next());
+		Assert.assertArrayEquals( new String[]{ "A", "C", "D"}, iterator.next());
+		Assert.assertFalse( iterator.hasNext());
+
+		final OperandPattern pattern = OperandPattern.compile( "[A | B]...");
+		final Iterator< String[]> many = pattern.iterateSequences( 100);
+		final String[] first = many.next();
+		Assert.assertEquals( 100, first.length);
+		Assert.assertEquals( "A", first[ 99]);
+		Assert.assertEquals( "B", many.next()[ 99]);
+		Assert.assertEquals( "A", many.next()[ 99]);
+		Assert.assertEquals( BigInteger.ONE.shiftLeft( 100), pattern.countSequences( 100));
+	}
+
+	@ Test
+	public void testSequenceCounting() {
+		Assert.assertEquals( BigInteger.ONE, OperandPattern.compile( OperandPatternTest.PATTERNS[ 0]).countSequences( 0));
+		Assert.assertEquals( BigInteger.ZERO, OperandPattern.compile( OperandPatternTest.PATTERNS[ 0]).countSequences( 1));
+		Assert.assertEquals( BigInteger.valueOf( 2), OperandPattern.compile( OperandPatternTest.PATTERNS[ 2]).countSequences( 2));
+		Assert.assertEquals( BigInteger.valueOf( 2), OperandPattern.compile( OperandPatternTest.PATTERNS[ 3]).countSequences( 3));
+		Assert.assertEquals( BigInteger.ONE, OperandPattern.compile( OperandPatternTest.PATTERNS[ 5]).countSequences( 7));
+		Assert.assertEquals( BigInteger.ONE, OperandPattern.compile( OperandPatternTest.PATTERNS[ 8]).countSequences( 1000));
+	}
+
 	@ Test
 	public void testMultipleOccurrencesPossible() {
 		Assert.assertFalse( OperandPattern.compile( OperandPatternTest.PATTERNS[ 2]).isMultipleOccurrencePossible( "A"));
@@ -0,0 +1,162 @@
+/*
+ * Copyright 2014 Bagana <bagana@musiel.org>
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License. You 
+ * may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS, 
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing 
+ * permissions and limitations under the License.
+ */
+package org.musiel.args.reflect;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.musiel.args.ArgumentException;
+import org.musiel.args.Parser;
+import org.musiel.args.Result;
+
+public class ModelProcessorTest {
+
+	private static final String MODEL = "package demo;\n" //
+			+ "import java.io.File;\n" //
+			+ "import org.musiel.args.ArgumentPolicy;\n" //
+			+ "import org.musiel.args.DefaultAccessor;\n" //
+			+ "import org.musiel.args.reflect.*;\n" //
+			+ "@ GenerateParser\n" //
+			+ "@ OperandPattern( \"[INPUT... OUTPUT]\")\n" //
+			+ "@ Description( \"a \\\"model\\\"\\n\")\n" //
+			+ "public interface Cli extends DefaultAccessor {\n" //
+			+ "	boolean help();\n" //
+			+ "	@ Option( { \"-v\", \"--verbose\"}) @ Repeatable boolean verbose();\n" //
+			+ "	Integer logLevel();\n" //
+			+ "	@ Required @ Argument( ArgumentPolicy.REQUIRED) String name();\n" //
+			+ "	@ Default( \"7\") int[] index();\n" //
+			+ "	@ DecoderClass( StringValue.Decoder.class) String user();\n" //
+			+ "	@ IntegerValue( radix = 16, max = \"255\") int mask();\n" //
+			+ "	@ Operands( \"INPUT\") File[] inputFiles();\n" //
+			+ "	@ Operands( \"OUTPUT\") File outputFile();\n" //
+			+ "}\n";
+
+	private static boolean compile( final Path directory, final String className, final String source, final List< Diagnostic< ?>> errors)
+			throws IOException {
+		final Path sourceFile = directory.resolve( className.replace( '.', File.separatorChar) + ".java");
+		Files.createDirectories( sourceFile.getParent());
+		Files.write( sourceFile, source.getBytes( StandardCharsets.UTF_8));
+
+		final JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+		final DiagnosticCollector< JavaFileObject> diagnostics = new DiagnosticCollector<>();
+		final StandardJavaFileManager fileManager = compiler.getStandardFileManager( diagnostics, null, StandardCharsets.UTF_8);
+		final JavaCompiler.CompilationTask task =
+				compiler.getTask( null, fileManager, diagnostics, Arrays.asList( "-d", directory.toString(), "-s", directory.toString(),
+						"-cp", System.getProperty( "java.class.path")), null, fileManager.getJavaFileObjects( sourceFile.toFile()));
+		task.setProcessors( Collections.singleton( new ModelProcessor()));
+		final boolean compiled = task.call().booleanValue();
+		fileManager.close();
+		for( final Diagnostic< ? extends JavaFileObject> diagnostic: diagnostics.getDiagnostics())
+			if( diagnostic.getKind() == Diagnostic.Kind.ERROR)
+				errors.add( diagnostic);
+		return compiled;
+	}
+
+	private static void delete( final Path directory) throws IOException {
+		Files.walkFileTree( directory, new SimpleFileVisitor< Path>() {
+
+			@ Override
+			public FileVisitResult visitFile( final Path file, final BasicFileAttributes attributes) throws IOException {
+				Files.delete( file);
+				return FileVisitResult.CONTINUE;
+			}
+
+			@ Override
+			public FileVisitResult postVisitDirectory( final Path directory, final IOException exception) throws IOException {
+				if( exception != null)
+					throw exception;
+				Files.delete( directory);
+				return FileVisitResult.CONTINUE;
+			}
+		});
+	}
+
+	private static List< String> getMessages( final Result< ?> result) {
+		final List< String> messages = new ArrayList<>();
+		for( final ArgumentException exception: result.getErrors())
+			messages.add( exception.getClass().getName() + ": " + exception.getMessage());
+		// methods are in the order of declaration in a generated parser, but not found in any particular order by reflection
+		Collections.sort( messages);
+		return messages;
+	}
+
+	@ Test
+	public void testSameAsReflectParser() throws Exception {
+		final List< Diagnostic< ?>> errors = new ArrayList<>();
+		final Path directory = Files.createTempDirectory( "generated");
+		try {
+			Assert.assertTrue( ModelProcessorTest.compile( directory, "demo.Cli", ModelProcessorTest.MODEL, errors));
+			Assert.assertEquals( Collections.emptyList(), errors);
+			try( final URLClassLoader classLoader =
+					new URLClassLoader( new URL[]{ directory.toUri().toURL()}, ModelProcessorTest.class.getClassLoader())) {
+				final Class< ?> model = classLoader.loadClass( "demo.Cli");
+				@ SuppressWarnings( "unchecked")
+				final Parser< ? extends Result< ?>> generated =
+						( Parser< ? extends Result< ?>>) classLoader.loadClass( "demo.CliParser").getConstructor().newInstance();
+				final Parser< ? extends Result< ?>> reflected = new ReflectParser<>( model);
+
+				for( final String[] args: new String[][]{
+						{ "--help", "-vv", "--name", "x", "--index", "3", "--index", "4", "--user", "u", "--mask", "1f", "in1", "in2",
+								"out"}, { "--log-level", "x", "--index", "y", "--mask", "100", "--unknown"}, { "--verbose", "--name"}}) {
+					final Result< ?> expected = reflected.parse( args);
+					final Result< ?> actual = generated.parse( args);
+					Assert.assertEquals( ModelProcessorTest.getMessages( expected), ModelProcessorTest.getMessages( actual));
+					for( final Method method: model.getMethods())
+						if( method.getParameterTypes().length == 0)
+							Assert.assertTrue( method.getName(), Arrays.deepEquals( new Object[]{ method.invoke( expected.getAccessor())},
+									new Object[]{ method.invoke( actual.getAccessor())}));
+				}
+				Assert.assertEquals( Arrays.asList( "-v", "-v"), ( ( org.musiel.args.DefaultAccessor) generated.parse( "-vv")
+						.getAccessor()).getNames( "--verbose"));
+			}
+		} finally {
+			ModelProcessorTest.delete( directory);
+		}
+	}
+
+	@ Test
+	public void testInvalidModel() throws Exception {
+		final List< Diagnostic< ?>> errors = new ArrayList<>();
+		final Path directory = Files.createTempDirectory( "generated");
+		try {
+			Assert.assertFalse( ModelProcessorTest.compile( directory, "demo.Cli", ModelProcessorTest.MODEL.replace(
+					"Operands( \"OUTPUT\")", "Operands( \"TARGET\")"), errors));
+		} finally {
+			ModelProcessorTest.delete( directory);
+		}
+		Assert.assertEquals( 1, errors.size());
+		Assert.assertEquals( "operand name \"TARGET\" does not exist in the operand pattern", errors.get( 0).getMessage( null));
+	}
+}
@@ -13,13 +13,20 @@
 package org.musiel.args.reflect;
 
 import java.io.File;
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
 
 import org.junit.Assert;
 import org.junit.Test;
+import org.musiel.args.ArgumentException;
+import org.musiel.args.ArgumentExceptions;
 import org.musiel.args.DefaultAccessor;
 import org.musiel.args.Result;
 import org.musiel.args.generic.AbstractParser;
 import org.musiel.args.generic.AbstractParserTest;
+import org.musiel.args.syntax.GnuSyntax;
 
 public class ReflectParserTest extends AbstractParserTest {
 
@@ -96,4 +103,119 @@ public class ReflectParserTest extends AbstractParserTest {
 		Assert.assertEquals( new File( "output"), options.outputFile());
 		Assert.assertArrayEquals( new int[]{ 3, 9}, options.index());
 	}
+
+	private static interface Accessible extends DefaultAccessor {
+
+		@ Option( { "-v", "--verbose"})
+		@ Repeatable
+		public boolean verbose();
+	}
+
+	@ Test
+	public void testDefaultAccessorMethods() {
+		final Accessible accessor = ReflectParser.parse( Accessible.class, "-vv", "--verbose", "operand").getAccessor();
+		Assert.assertTrue( accessor.verbose());
+		Assert.assertTrue( accessor.isOccurred( "--verbose"));
+		Assert.assertEquals( 3, accessor.getOccurrences( "-v"));
+		Assert.assertEquals( "operand", accessor.getOperand());
+		Assert.assertArrayEquals( new String[]{ "operand"}, accessor.getOperandsAsArray());
+	}
+
+	@ Test
+	public void testRepeatedParsing() {
+		for( int index = 0; index < 3; ++index) {
+			final Options options = ReflectParser.parse( Options.class, "--index", String.valueOf( index), "input", "output").getAccessor();
+			Assert.assertArrayEquals( new int[]{ index}, options.index());
+			Assert.assertArrayEquals( new File[]{ new File( "input")}, options.inputFiles());
+			Assert.assertEquals( new File( "output"), options.outputFile());
+		}
+		Assert.assertSame( ModelDescriptor.forModel( Options.class), ModelDescriptor.forModel( Options.class));
+	}
+
+	@ Test
+	public void testFailFast() {
+		final Result< Options> result =
+				ReflectParser.parse( new GnuSyntax().setFailFast( true), Options.class, "--log-level", "x", "--unknown", "--index", "y");
+		Assert.assertEquals( 1, result.getErrors().size());
+		Assert.assertFalse( result.getAccessor().help());
+		Assert.assertNull( result.getAccessor().logLevel());
+	}
+
+	@ Test
+	public void testLazyDecoding() {
+		final ReflectParser< Options> parser = new ReflectParser<>( Options.class);
+		parser.setLazyDecoding( true);
+		final Result< Options> result = parser.parse( "--log-level", "x", "--index", "3", "input", "output");
+		Assert.assertArrayEquals( new int[]{ 3}, result.getAccessor().index());
+		Assert.assertSame( result.getAccessor().inputFiles(), result.getAccessor().inputFiles());
+		Assert.assertEquals( 1, result.getErrors().size());
+		Assert.assertNull( result.getAccessor().logLevel());
+		try {
+			result.check();
+			Assert.fail();
+		} catch( final ArgumentExceptions exceptions) {
+			Assert.assertEquals( 1, exceptions.getArgumentExceptions().size());
+		}
+	}
+
+	public static class CountingDecoder implements Decoder< Integer> {
+
+		private int count = 0;
+
+		@ Override
+		public Integer decode( final String stringRepresentation) {
+			return Integer.valueOf( ++this.count);
+		}
+	}
+
+	private static interface Counted {
+
+		@ DecoderClass( CountingDecoder.class)
+		public Integer count();
+	}
+
+	@ Test
+	public void testDecodersOfEachParser() {
+		Assert.assertEquals( Integer.valueOf( 1), new ReflectParser<>( Counted.class).parse( "--count", "x").getAccessor().count());
+		// the decoder declared on the model is not shared by the parser above
+		Assert.assertEquals( Integer.valueOf( 1), new ReflectParser<>( Counted.class).parse( "--count", "x").getAccessor().count());
+	}
+
+	private static interface Numbers {
+
+		@ IntegerValue( radix = 16, max = "255")
+		public int mask();
+
+		public long[] sizes();
+
+		public double[] ratios();
+
+		public byte level();
+
+		public BigInteger big();
+	}
+
+	@ Test
+	public void testNumbers() {
+		final Result< Numbers> result =
+				ReflectParser.parse( Numbers.class, "--mask", "fF", "--sizes", "9223372036854775807", "--sizes", "-9223372036854775808",
+						"--ratios", "1.5e3", "--ratios", "-.25", "--level", "-128", "--big", "-123456789012345678901234567890");
+		Assert.assertTrue( result.getErrors().isEmpty());
+		Assert.assertEquals( 255, result.getAccessor().mask());
+		Assert.assertArrayEquals( new long[]{ Long.MAX_VALUE, Long.MIN_VALUE}, result.getAccessor().sizes());
+		Assert.assertArrayEquals( new double[]{ 1500, -0.25}, result.getAccessor().ratios(), 0);
+		Assert.assertEquals( -128, result.getAccessor().level());
+		Assert.assertEquals( new BigInteger( "-123456789012345678901234567890"), result.getAccessor().big());
+
+		final Set< String> messages = new HashSet<>();
+		for( final ArgumentException exception: ReflectParser.parse( Numbers.class, "--mask", "100", "--sizes", "9223372036854775808",
+				"--sizes", "12x", "--ratios", "NaN", "--ratios", "1e", "--level", "128").getErrors())
+			messages.add( exception.getMessage());
+		Assert.assertEquals( new HashSet<>( Arrays.asList( "invalid argument for option --mask: value out of range [-2147483648, 255]: 100",
+				"invalid argument for option --sizes: value out of range [-9223372036854775808, 9223372036854775807]: 9223372036854775808",
+				"invalid argument for option --sizes: not an integer number: 12x",
+				"invalid argument for option --ratios: not a floating point number: NaN",
+				"invalid argument for option --ratios: not a floating point number: 1e",
+				"invalid argument for option --level: value out of range [-128, 127]: 128")), messages);
+	}
 }
@@ -12,9 +12,13 @@
  */
 package org.musiel.args.syntax;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Set;
 
 import org.junit.Assert;
@@ -23,6 +27,8 @@ import org.junit.Test;
 import org.musiel.args.ArgumentException;
 import org.musiel.args.ArgumentPolicy;
 import org.musiel.args.Option;
+import org.musiel.args.syntax.Syntax.OrderedSyntaxResult;
+import org.musiel.args.syntax.Syntax.OrderedSyntaxResult.Occurrence;
 import org.musiel.args.syntax.Syntax.SyntaxResult;
 
 public abstract class AbstractPosixSyntaxTest {
@@ -94,6 +100,48 @@ public abstract class AbstractPosixSyntaxTest {
 		Assert.assertFalse( this.syntax.isLateOptionsAllowed());
 	}
 
+	@ Test
+	public void testFailFast() {
+		Assert.assertFalse( this.syntax.isFailFast());
+		this.syntax.setFailFast( true);
+		final CompiledSyntax compiled = this.syntax.compile( this.options);
+		this.syntax.setFailFast( false);
+		Assert.assertTrue( compiled.isFailFast());
+		final SyntaxResult result = compiled.parse( "-b", "-zy", "-a", "-o");
+		Assert.assertEquals( 1, result.getErrors().size());
+		Assert.assertTrue( result.getErrors().iterator().next() instanceof UnknownOptionException);
+		Assert.assertEquals( 1, result.getNames( "-b").size());
+		Assert.assertTrue( result.getNames( "-a").isEmpty());
+	}
+
+	@ Test
+	public void testManyOptions() {
+		final Set< Option> options = new HashSet<>();
+		for( final char name: "abcdefghijklmnopqrstuvwxyzABCDEFGHIJKLMNOPQRSTUVWXYZ0123456789".toCharArray())
+			options.add( this.option( Character.isDigit( name), false, ArgumentPolicy.NONE, "-" + name));
+		final SyntaxResult result = this.syntax.compile( options).parse( "-x", "-1", "-2", "-x", "-3", "-4", "-5", "-6", "-7", "-8");
+		final List< Class< ?>> errors = new ArrayList<>();
+		for( final ArgumentException error: result.getErrors())
+			errors.add( error.getClass());
+		Assert.assertEquals( 3, errors.size());
+		Assert.assertEquals( 2, Collections.frequency( errors, MissingOptionException.class));
+		Assert.assertTrue( errors.contains( TooManyOccurrenceException.class));
+		Assert.assertEquals( 2, result.getNames( "-x").size());
+		Assert.assertEquals( 1, result.getNames( "-8").size());
+		Assert.assertTrue( result.getNames( "-9").isEmpty());
+		Assert.assertTrue( result.getArguments( "-y").isEmpty());
+	}
+
+	@ Test
+	public void testOccurrenceCount() {
+		final OrderedSyntaxResult result = this.syntax.parse( this.options, "-a", "-b", "-a", "-z", "-a");
+		Assert.assertEquals( 3, result.getOccurrenceCount( "-a"));
+		Assert.assertEquals( 1, result.getOccurrenceCount( "-b"));
+		Assert.assertEquals( 0, result.getOccurrenceCount( "-o"));
+		Assert.assertEquals( 1, result.getOccurrenceCount( "-z"));
+		Assert.assertEquals( 0, result.getOccurrenceCount( "-y"));
+	}
+
 	@ Test
 	public void testConfigurationAutoChange() {
 		this.syntax.setOptionalArgumentsAllowed( true);
@@ -179,6 +227,150 @@ public abstract class AbstractPosixSyntaxTest {
 		}
 	}
 
+	@ Test
+	public void testCompiledSyntaxReused() {
+		final CompiledSyntax compiled = this.syntax.compile( this.options);
+		this.syntax.setLateOptionsAllowed( !this.syntax.isLateOptionsAllowed());
+		for( int round = 0; round < 3; ++round) {
+			final SyntaxResult result = compiled.parse( "-a", "-o", "file" + round, "operand");
+			Assert.assertTrue( result.getErrors().isEmpty());
+			Assert.assertArrayEquals( new String[]{ "file" + round}, result.getArguments( "-o").toArray());
+			Assert.assertArrayEquals( new String[]{ "operand"}, result.getOperands().toArray());
+		}
+		Assert.assertEquals( this.options, compiled.getOptions());
+	}
+
+	@ Test
+	public void testLongCluster() {
+		final StringBuilder cluster = new StringBuilder().append( '-');
+		for( int index = 0; index < 5000; ++index)
+			cluster.append( "ab");
+		final SyntaxResult result = this.syntax.parse( this.options, cluster.append( 'o').toString(), "file");
+		Assert.assertTrue( result.getErrors().isEmpty());
+		Assert.assertEquals( 5000, result.getNames( "-a").size());
+		Assert.assertEquals( 5000, result.getNames( "-b").size());
+		Assert.assertArrayEquals( new String[]{ "file"}, result.getArguments( "-o").toArray());
+	}
+
+	@ Test
+	public void testParseRange() {
+		final SyntaxResult result =
+				this.syntax.compile( this.options).parse( new String[]{ "-x", "-a", "-o", "file", "operand", "-y"}, 1, 4);
+		Assert.assertTrue( result.getErrors().isEmpty());
+		Assert.assertEquals( 1, result.getNames( "-a").size());
+		Assert.assertArrayEquals( new String[]{ "file"}, result.getArguments( "-o").toArray());
+		Assert.assertArrayEquals( new String[]{ "operand"}, result.getOperands().toArray());
+	}
+
+	@ Test
+	public void testOccurrences() {
+		final OrderedSyntaxResult result = this.syntax.parse( this.options, "-o", "1", "-bz", "-o", "2", "-a");
+		final List< Occurrence> occurrences = result.getOccurrences();
+		Assert.assertEquals( 5, occurrences.size());
+		Assert.assertEquals( "[-o 1, -b, -z, -o 2, -a]", occurrences.toString());
+		Assert.assertSame( this.optionO, occurrences.get( 3).getOption());
+		Assert.assertNull( occurrences.get( 2).getOption());
+		Assert.assertNull( occurrences.get( 4).getArgument());
+		Assert.assertArrayEquals( new String[]{ "1", "2"}, result.getArguments( "-o").toArray());
+		Assert.assertArrayEquals( new String[]{ "-z"}, result.getNames( "-z").toArray());
+	}
+
+	@ Test
+	public void testReadingAbsentOptions() {
+		final OrderedSyntaxResult result = this.syntax.parse( this.options, "-a");
+		Assert.assertTrue( result.getNames( "-b").isEmpty());
+		Assert.assertTrue( result.getArguments( "-undefined").isEmpty());
+		Assert.assertEquals( 1, result.getOccurrences().size());
+	}
+
+	@ Test
+	public void testListener() {
+		final Set< Option> options = new HashSet<>( this.options);
+		options.add( this.option( true, false, ArgumentPolicy.NONE, "-r"));
+		options.add( this.option( true, false, ArgumentPolicy.NONE, "-q"));
+		final List< String> events = new ArrayList<>();
+		final Iterator< String> args = Arrays.asList( "-ab", "-o", "file", "-r", "-r", "-z", "--", "operand").iterator();
+		this.syntax.compile( options).parse( args, new SyntaxListener() {
+
+			@ Override
+			public void onOption( final Option option, final String name, final String argument) {
+				events.add( ( option == null? "?": "") + name + ( argument == null? "": "=" + argument));
+			}
+
+			@ Override
+			public void onOperand( final String operand) {
+				events.add( operand);
+			}
+
+			@ Override
+			public void onError( final ArgumentException exception) {
+				events.add( exception.getClass().getSimpleName());
+			}
+
+			@ Override
+			public void onEnd() {
+				events.add( "end");
+			}
+		});
+		Assert.assertArrayEquals( new String[]{ "-a", "-b", "-o=file", "-r", "TooManyOccurrenceException", "-r", "UnknownOptionException",
+				"?-z", "operand", "MissingOptionException", "end"}, events.toArray());
+	}
+
+	@ Test
+	public void testListenerFailFast() {
+		final Set< Option> options = new HashSet<>( this.options);
+		options.add( this.option( false, false, ArgumentPolicy.NONE, "-r", "-R"));
+		final List< String> events = new ArrayList<>();
+		final Iterator< String> args = Arrays.asList( "-r", "-R", "-z", "operand").iterator();
+		this.syntax.setFailFast( true);
+		this.syntax.compile( options).parse( args, new SyntaxListener() {
+
+			@ Override
+			public void onOption( final Option option, final String name, final String argument) {
+				events.add( name);
+			}
+
+			@ Override
+			public void onOperand( final String operand) {
+				events.add( operand);
+			}
+
+			@ Override
+			public void onError( final ArgumentException exception) {
+				final TooManyOccurrenceException tooMany = ( TooManyOccurrenceException) exception;
+				events.add( tooMany.getOptionName() + tooMany.getAdditionalOptionNames());
+			}
+
+			@ Override
+			public void onEnd() {
+				events.add( "end");
+			}
+		});
+		Assert.assertArrayEquals( new String[]{ "-r", "-R[-r]", "-R", "end"}, events.toArray());
+	}
+
+	@ Test
+	public void testErrorsCreatedOnce() {
+		final SyntaxResult result = this.syntax.parse( this.options, "-z", "-o");
+		Assert.assertEquals( 2, result.getErrors().size());
+		final ArgumentException first = result.getErrors().iterator().next();
+		Assert.assertTrue( first instanceof UnknownOptionException);
+		Assert.assertSame( first, result.getErrors().iterator().next());
+		Assert.assertEquals( 0, first.getStackTrace().length);
+	}
+
+	@ Test
+	public void testCompilingDuplicateNames() {
+		final Set< Option> options = new HashSet<>( this.options);
+		options.add( this.option( "-x", "-a"));
+		try {
+			this.syntax.compile( options);
+			Assert.fail();
+		} catch( final IllegalArgumentException exception) {
+			Assert.assertTrue( exception.getMessage().contains( "duplicate name"));
+		}
+	}
+
 	@ Test
 	public void testMissingArgument() {
 		this.verifyException( this.syntax.parse( this.options, "-o").getErrors(), "option -o requires an argument");
@@ -17,6 +17,7 @@ import java.util.Set;
 
 import org.junit.Assert;
 import org.junit.Test;
+import org.musiel.args.ArgumentException;
 import org.musiel.args.ArgumentPolicy;
 import org.musiel.args.Option;
 import org.musiel.args.syntax.Syntax.SyntaxResult;
@@ -106,6 +107,48 @@ public class GnuSyntaxTest extends AbstractPosixSyntaxTest {
 
 		this.verifyException( this.syntax.parse( options, "--ignore", "ignored", "--ignor=ignored-file").getErrors(),
 				"ambiguous option name: --ignor");
+		for( final ArgumentException exception: this.syntax.parse( options, "--ig=ignored-file").getErrors())
+			Assert.assertArrayEquals( new String[]{ "--ignore", "--ignore-file"}, ( ( AmbiguousOptionNameException) exception)
+					.getCandidates().toArray());
+	}
+
+	@ Test
+	public void testAbbreviationAmongManyNames() {
+		final Set< Option> options = new HashSet<>( this.options);
+		for( int index = 0; index < 1400; ++index)
+			options.add( this.option( "--feature-" + index));
+		options.add( this.option( "--fast"));
+		final CompiledSyntax compiled = this.syntax.compile( options);
+
+		SyntaxResult result = compiled.parse( "--feature-139", "--feature-1399", "--fa");
+		Assert.assertTrue( result.getErrors().isEmpty());
+		Assert.assertEquals( 1, result.getNames( "--feature-139").size());
+		Assert.assertEquals( 1, result.getNames( "--feature-1399").size());
+		Assert.assertArrayEquals( new String[]{ "--fast"}, result.getNames( "--fast").toArray());
+
+		result = compiled.parse( "--feature-");
+		Assert.assertEquals( 1, result.getErrors().size());
+		final AmbiguousOptionNameException exception = ( AmbiguousOptionNameException) result.getErrors().iterator().next();
+		Assert.assertEquals( 1400, exception.getCandidates().size());
+		Assert.assertEquals( "--feature-0", exception.getCandidates().get( 0));
+		Assert.assertEquals( "--feature-999", exception.getCandidates().get( 1399));
+
+		this.verifyException( compiled.parse( "--features").getErrors(), "unknown option: --features");
+		this.verifyException( compiled.parse( "--f").getErrors(), "ambiguous option name: --f");
+	}
+
+	@ Test
+	public void testManyLongNames() {
+		final Set< Option> options = new HashSet<>( this.options);
+		for( int index = 0; index < 500; ++index)
+			options.add( this.option( false, true, ArgumentPolicy.REQUIRED, "--feature-" + index));
+		final SyntaxResult result = this.syntax.parse( options, "--feature-0=a", "--feature-499", "b", "--feature-17=c", "-a");
+		Assert.assertTrue( result.getErrors().isEmpty());
+		Assert.assertArrayEquals( new String[]{ "a"}, result.getArguments( "--feature-0").toArray());
+		Assert.assertArrayEquals( new String[]{ "b"}, result.getArguments( "--feature-499").toArray());
+		Assert.assertArrayEquals( new String[]{ "c"}, result.getArguments( "--feature-17").toArray());
+		Assert.assertEquals( 1, result.getNames( "-a").size());
+		this.verifyException( this.syntax.parse( options, "--feature-500=d").getErrors(), "unknown option: --feature-500");
 	}
 
 	@ Test
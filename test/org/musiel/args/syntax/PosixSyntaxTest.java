@@ -12,8 +12,14 @@
  */
 package org.musiel.args.syntax;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+
 import org.junit.Assert;
 import org.junit.Test;
+import org.musiel.args.Option;
 
 public class PosixSyntaxTest extends AbstractPosixSyntaxTest {
 
@@ -39,4 +45,26 @@ public class PosixSyntaxTest extends AbstractPosixSyntaxTest {
 		Assert.assertTrue( this.syntax.parse( this.options, "-a", "file1").getErrors().isEmpty());
 		this.verifyException( this.syntax.parse( this.options, "-a", "file1", "-a").getErrors(), "options must precede operands: -a");
 	}
+
+	@ Test
+	@ SuppressWarnings( "deprecation")
+	public void testMachineOfEarlierVersions() {
+		final List< String> handled = new ArrayList<>();
+		final PosixSyntax syntax = new PosixSyntax() {
+
+			@ Override
+			protected PosixMachine newMachine( final Set< Option> options) {
+				return new PosixMachine( options) {
+
+					@ Override
+					protected void handleOption( final String arg) {
+						handled.add( arg);
+						super.handleOption( arg);
+					}
+				};
+			}
+		};
+		Assert.assertTrue( syntax.parse( this.options, "-a", "file1").getErrors().isEmpty());
+		Assert.assertEquals( Arrays.asList( "-a"), handled);
+	}
 }